@@ -0,0 +1,130 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.*;
+
+/**
+ * Decodes images on a small background pool and hands the result back on the EDT.
+ * Queued work is ordered by how far its component is from the visible area of
+ * the enclosing scroll pane, so what is on screen is loaded first.
+ */
+public class AsyncImageLoader {
+
+    private static final AsyncImageLoader SHARED =
+            new AsyncImageLoader(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+
+    public static AsyncImageLoader shared() {
+        return SHARED;
+    }
+
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    private final ThreadPoolExecutor pool;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public AsyncImageLoader(int threads) {
+        AtomicInteger n = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, queue, r -> {
+            Thread t = new Thread(r, "image-loader-" + n.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Shows the image in the label once it is ready. The label should already
+     * display a placeholder of the same size.
+     */
+    public void load(JLabel target, String fileName, int w, int h) {
+        BufferedImage cached = ImageCache.shared().peek(fileName, w, h);
+        if (cached != null) {
+            target.setIcon(new ImageIcon(cached));
+            return;
+        }
+        submit(target, () -> ImageCache.shared().get(fileName, w, h), img -> {
+            target.setIcon(new ImageIcon(img));
+        });
+    }
+
+    /**
+     * Runs work in the background, then calls onReady on the EDT with the result
+     * (not called when the result is null). The anchor decides the priority.
+     */
+    public void submit(Component anchor, Supplier<BufferedImage> work, Consumer<BufferedImage> onReady) {
+        Task task = new Task(anchor, work, onReady, sequence.incrementAndGet());
+        task.priority = priorityOf(anchor);
+        pool.execute(task);
+    }
+
+    /** Re-sorts queued work after the viewport moved. Call on the EDT. */
+    public void reprioritize() {
+        ArrayList<Runnable> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        if (pending.isEmpty()) return;
+        for (Runnable r : pending) {
+            Task t = (Task) r;
+            t.priority = priorityOf(t.anchor);
+        }
+        queue.addAll(pending);
+        // the queue was empty for a moment: idle workers may have timed out meanwhile,
+        // and addAll (unlike execute) starts none
+        pool.prestartAllCoreThreads();
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    // 0 when the component is on screen, otherwise its distance to the viewport
+    private static int priorityOf(Component c) {
+        if (c == null || !c.isShowing()) return Integer.MAX_VALUE;
+        if (c instanceof JComponent && !((JComponent) c).getVisibleRect().isEmpty()) return 0;
+
+        JViewport vp = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, c);
+        if (vp == null) return Integer.MAX_VALUE - 1;
+        Rectangle view = vp.getViewRect();
+        Rectangle r = SwingUtilities.convertRectangle(c.getParent(), c.getBounds(), vp.getView());
+        int dist = r.y > view.y ? r.y - (view.y + view.height) : view.y - (r.y + r.height);
+        return 1 + Math.max(0, dist);
+    }
+
+    private static class Task implements Runnable, Comparable<Task> {
+        final Component anchor;
+        final Supplier<BufferedImage> work;
+        final Consumer<BufferedImage> onReady;
+        final long seq;
+        volatile int priority;
+
+        Task(Component anchor, Supplier<BufferedImage> work, Consumer<BufferedImage> onReady, long seq) {
+            this.anchor = anchor;
+            this.work = work;
+            this.onReady = onReady;
+            this.seq = seq;
+        }
+
+        public void run() {
+            BufferedImage img;
+            try {
+                img = work.get();
+            } catch (Exception e) {
+                img = null;
+            }
+            if (img == null) return; // keep the placeholder
+            BufferedImage result = img;
+            SwingUtilities.invokeLater(() -> onReady.accept(result));
+        }
+
+        public int compareTo(Task o) {
+            int c = Integer.compare(priority, o.priority);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+}
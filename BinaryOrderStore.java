@@ -0,0 +1,345 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Binary order store: three files next to each other.
+ *
+ *   base.bin   records, each a fixed 40-byte header then 16 bytes per item:
+ *                int magic, int length, long orderId, long epochSecond, int nano,
+ *                long total, int itemCount | int productId, long unitPrice, int quantity
+ *   base.idx   one 24-byte entry per record: long orderId, long dateKey, long offset
+ *   base.dict  "id;name" lines, the name each product id was sold under
+ *
+ * Order ids are given in sequence, so the index is sorted by id; it is also
+ * sorted by date as long as orders arrive in date order (if not, a sorted
+ * permutation is built in memory). Lookups binary-search the mapped index and
+ * decode one record from the mapped data file, nothing else is read (the
+ * mapping caps the data file at 2 GB).
+ *
+ * Appends are synchronized; a record is written before its index entry, and a
+ * torn tail (crash mid-append) is cut off when the store is reopened.
+ */
+public class BinaryOrderStore implements AutoCloseable {
+
+    static final int FILE_MAGIC = 0x464F5244;   // "FORD"
+    static final int RECORD_MAGIC = 0x4F524452; // "ORDR"
+    static final int VERSION = 1;
+    static final int FILE_HEADER = 8;
+    static final int RECORD_HEADER = 40;
+    static final int ITEM_SIZE = 16;
+    static final int INDEX_ENTRY = 24;
+
+    /** An order with the id the store gave it. */
+    public static class Record {
+        public final long id;
+        public final Order order;
+
+        Record(long id, Order order) {
+            this.id = id;
+            this.order = order;
+        }
+    }
+
+    private final Path dataFile, indexFile, dictFile;
+    private final FileChannel data, index;
+    private final BufferedWriter dictOut;
+    private final HashMap<Integer, String> names = new HashMap<>();
+    private final HashMap<String, Integer> syntheticIds = new HashMap<>();
+    private int nextSyntheticId = -1;
+
+    private MappedByteBuffer dataMap, indexMap; // remapped when the files have grown
+    private long dataSize, count, lastDateKey = Long.MIN_VALUE;
+    private boolean dateSorted = true;
+    private int[] byDate; // only when orders were not appended in date order
+
+    /** Opens (or creates) base.bin / base.idx / base.dict. */
+    public BinaryOrderStore(Path base) throws IOException {
+        String b = base.toString();
+        dataFile = Paths.get(b + ".bin");
+        indexFile = Paths.get(b + ".idx");
+        dictFile = Paths.get(b + ".dict");
+
+        data = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        initHeader(data);
+        initHeader(index);
+        loadDictionary();
+        dictOut = Files.newBufferedWriter(dictFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        recover();
+    }
+
+    private static void initHeader(FileChannel ch) throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(FILE_HEADER);
+        if (ch.size() == 0) {
+            h.putInt(FILE_MAGIC).putInt(VERSION).flip();
+            ch.write(h, 0);
+            return;
+        }
+        ch.read(h, 0);
+        h.flip();
+        if (h.remaining() < FILE_HEADER || h.getInt() != FILE_MAGIC) throw new IOException("Not an order store file");
+        int version = h.getInt();
+        if (version != VERSION) throw new IOException("Unsupported order store version " + version);
+    }
+
+    private void loadDictionary() throws IOException {
+        if (!Files.exists(dictFile)) return;
+        for (String line : Files.readAllLines(dictFile, StandardCharsets.UTF_8)) {
+            int sep = line.indexOf(';');
+            if (sep <= 0) continue;
+            int id = Integer.parseInt(line.substring(0, sep));
+            String name = line.substring(sep + 1);
+            names.put(id, name);
+            if (id < 0) {
+                syntheticIds.put(name, id);
+                nextSyntheticId = Math.min(nextSyntheticId, id - 1);
+            }
+        }
+    }
+
+    // Brings the index in line with the data file: drops a torn record at the
+    // end of the data, drops index entries past it, indexes records it lacks.
+    private void recover() throws IOException {
+        long indexed = Math.max(0, (index.size() - FILE_HEADER) / INDEX_ENTRY);
+        long end = FILE_HEADER;
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY);
+        // walk back from the last entry until one points inside the data file
+        while (indexed > 0) {
+            entry.clear();
+            index.read(entry, FILE_HEADER + (indexed - 1) * INDEX_ENTRY);
+            entry.flip();
+            long off = entry.getLong(16);
+            int len = recordLength(off);
+            if (len > 0) {
+                end = off + len;
+                break;
+            }
+            indexed--;
+        }
+        index.truncate(FILE_HEADER + indexed * INDEX_ENTRY);
+        count = indexed;
+
+        // records written but not indexed
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        int len;
+        while ((len = recordLength(end)) > 0) {
+            header.clear();
+            data.read(header, end);
+            header.flip();
+            writeIndexEntry(header.getLong(8), dateKey(header.getLong(16), header.getInt(24)), end);
+            end += len;
+        }
+        data.truncate(end);
+        dataSize = end;
+
+        remap();
+        for (long i = 0; i < count; i++) {
+            long key = indexMap.getLong(entryPos(i) + 8);
+            if (key < lastDateKey) dateSorted = false;
+            lastDateKey = Math.max(lastDateKey, key);
+        }
+    }
+
+    // length of the complete record at off, or -1 if there is none
+    private int recordLength(long off) throws IOException {
+        if (off < FILE_HEADER || off + RECORD_HEADER > data.size()) return -1;
+        ByteBuffer h = ByteBuffer.allocate(RECORD_HEADER);
+        data.read(h, off);
+        h.flip();
+        if (h.getInt(0) != RECORD_MAGIC) return -1;
+        int len = h.getInt(4);
+        if (len < RECORD_HEADER || off + len > data.size()) return -1;
+        return len;
+    }
+
+    // -------------------- writing --------------------
+
+    /** Appends the order and returns its id. */
+    public synchronized long append(Order order) throws IOException {
+        int n = order.items.size();
+        int len = RECORD_HEADER + n * ITEM_SIZE;
+        long id = count + 1;
+        long seconds = order.date.toEpochSecond(ZoneOffset.UTC);
+        int nano = order.date.getNano();
+
+        ByteBuffer buf = ByteBuffer.allocate(len);
+        buf.putInt(RECORD_MAGIC).putInt(len).putLong(id).putLong(seconds).putInt(nano)
+                .putLong(order.total).putInt(n);
+        for (Order.Item item : order.items) {
+            buf.putInt(productIdFor(item)).putLong(item.unitPrice).putInt(item.quantity);
+        }
+        buf.flip();
+        long off = dataSize;
+        while (buf.hasRemaining()) data.write(buf, off + buf.position());
+        dataSize += len;
+
+        long key = dateKey(seconds, nano);
+        writeIndexEntry(id, key, off);
+        if (key < lastDateKey) {
+            dateSorted = false;
+            byDate = null;
+        }
+        lastDateKey = Math.max(lastDateKey, key);
+        return id;
+    }
+
+    private void writeIndexEntry(long id, long dateKey, long offset) throws IOException {
+        ByteBuffer e = ByteBuffer.allocate(INDEX_ENTRY);
+        e.putLong(id).putLong(dateKey).putLong(offset).flip();
+        long pos = FILE_HEADER + count * INDEX_ENTRY;
+        while (e.hasRemaining()) index.write(e, pos + e.position());
+        count++;
+    }
+
+    // The id stored for an item. The name it was sold under must come back on
+    // read, so an id whose recorded name differs (renamed product) or an item
+    // without an id gets a negative id of its own for that name.
+    private int productIdFor(Order.Item item) throws IOException {
+        int id = item.productId;
+        if (id > 0) {
+            String known = names.get(id);
+            if (known == null) {
+                addName(id, item.name);
+                return id;
+            }
+            if (known.equals(item.name)) return id;
+        }
+        Integer synthetic = syntheticIds.get(item.name);
+        if (synthetic != null) return synthetic;
+        int sid = nextSyntheticId--;
+        syntheticIds.put(item.name, sid);
+        addName(sid, item.name);
+        return sid;
+    }
+
+    private void addName(int id, String name) throws IOException {
+        names.put(id, name);
+        dictOut.write(id + ";" + name);
+        dictOut.newLine();
+        dictOut.flush();
+    }
+
+    /** Forces data, index and dictionary to disk. */
+    public synchronized void force() throws IOException {
+        dictOut.flush();
+        data.force(false);
+        index.force(false);
+    }
+
+    // -------------------- reading --------------------
+
+    public synchronized long count() {
+        return count;
+    }
+
+    /** The order with this id, or null. O(log n) on the index. */
+    public synchronized Record get(long id) throws IOException {
+        remap();
+        long lo = 0, hi = count - 1;
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            long v = indexMap.getLong(entryPos(mid));
+            if (v < id) lo = mid + 1;
+            else if (v > id) hi = mid - 1;
+            else return read(indexMap.getLong(entryPos(mid) + 16));
+        }
+        return null;
+    }
+
+    /** Orders dated in [from, to), in date order. */
+    public synchronized List<Record> between(LocalDateTime from, LocalDateTime to) throws IOException {
+        remap();
+        long fromKey = dateKey(from.toEpochSecond(ZoneOffset.UTC), from.getNano());
+        long toKey = dateKey(to.toEpochSecond(ZoneOffset.UTC), to.getNano());
+        ArrayList<Record> out = new ArrayList<>();
+        for (long i = lowerBound(fromKey); i < count; i++) {
+            int e = entryPos(dateSorted ? i : byDate[(int) i]);
+            if (indexMap.getLong(e + 8) >= toKey) break;
+            out.add(read(indexMap.getLong(e + 16)));
+        }
+        return out;
+    }
+
+    // first position (in date order) whose date is >= key
+    private long lowerBound(long key) {
+        if (!dateSorted && byDate == null) sortByDate();
+        long lo = 0, hi = count;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            int e = entryPos(dateSorted ? mid : byDate[(int) mid]);
+            if (indexMap.getLong(e + 8) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void sortByDate() {
+        Integer[] order = new Integer[(int) count];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        java.util.Arrays.sort(order, (a, b) -> Long.compare(indexMap.getLong(entryPos(a) + 8), indexMap.getLong(entryPos(b) + 8)));
+        byDate = new int[order.length];
+        for (int i = 0; i < order.length; i++) byDate[i] = order[i];
+    }
+
+    private Record read(long off) throws IOException {
+        if (dataMap.getInt((int) off) != RECORD_MAGIC) throw new IOException("Corrupt order store at offset " + off);
+        ByteBuffer r = dataMap.duplicate();
+        r.position((int) off + 8);
+        long id = r.getLong();
+        long seconds = r.getLong();
+        int nano = r.getInt();
+        long total = r.getLong();
+        int n = r.getInt();
+        ArrayList<Order.Item> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int pid = r.getInt();
+            long price = r.getLong();
+            int qty = r.getInt();
+            items.add(new Order.Item(Math.max(pid, 0), names.get(pid), price, qty));
+        }
+        return new Record(id, new Order(LocalDateTime.ofEpochSecond(seconds, nano, ZoneOffset.UTC), items, total));
+    }
+
+    private void remap() throws IOException {
+        if (dataMap == null || dataMap.capacity() != dataSize) {
+            dataMap = data.map(FileChannel.MapMode.READ_ONLY, 0, dataSize);
+        }
+        long indexSize = FILE_HEADER + count * INDEX_ENTRY;
+        if (indexMap == null || indexMap.capacity() != indexSize) {
+            indexMap = index.map(FileChannel.MapMode.READ_ONLY, 0, indexSize);
+        }
+    }
+
+    private static int entryPos(long i) {
+        return (int) (FILE_HEADER + i * INDEX_ENTRY);
+    }
+
+    // nanoseconds since 1970 (local time read as UTC); fits a long until 2262
+    private static long dateKey(long seconds, int nano) {
+        return seconds * 1_000_000_000L + nano;
+    }
+
+    public long dataBytes() {
+        return dataSize;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        dictOut.close();
+        data.close();
+        index.close();
+    }
+}
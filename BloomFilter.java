@@ -0,0 +1,40 @@
+/**
+ * Bloom filter over 64-bit hashes: k bit positions per element derived from
+ * one hash by double hashing. mightContain() == false means definitely absent.
+ */
+public class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int k;
+
+    /** Sized for the expected number of elements at the given false-positive rate. */
+    public BloomFilter(long expected, double fpp) {
+        long m = (long) Math.ceil(-Math.max(1, expected) * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, (m + 63) / 64 * 64);
+        bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, m / 64)];
+        bitCount = (long) bits.length * 64;
+        k = Math.max(1, (int) Math.round((double) bitCount / Math.max(1, expected) * Math.log(2)));
+    }
+
+    public void add(long hash) {
+        int h1 = (int) hash, h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= k; i++) {
+            long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(long hash) {
+        int h1 = (int) hash, h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= k; i++) {
+            long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    public long sizeBytes() {
+        return bits.length * 8L;
+    }
+}
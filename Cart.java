@@ -0,0 +1,186 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shopping cart: one line per product with a quantity, and a running total
+ * updated on every change (no re-summing). Lines are found by product id in
+ * a HashMap; adding, changing a quantity and removing a line are all O(1).
+ * Removal is a swap-remove: the last line takes the freed slot, so line
+ * order is only the order of addition until something is removed.
+ *
+ * Not thread-safe: the desktop UI only touches it on the EDT.
+ */
+public class Cart {
+
+    public static class Line {
+        final Product product;
+        int quantity;
+        int index; // position in the cart, kept up to date
+
+        Line(Product product, int quantity, int index) {
+            this.product = product;
+            this.quantity = quantity;
+            this.index = index;
+        }
+
+        public long subtotal() {
+            return product.price * quantity;
+        }
+
+        @Override
+        public String toString() {
+            // same text as an order line in orders.txt
+            return product.name + " - " + product.displayPrice() + (quantity > 1 ? " x " + quantity : "");
+        }
+    }
+
+    /**
+     * Row-level change events, so views can update without recomputing.
+     * lineRemoved gives the row that goes away, which is the last one when
+     * another line was moved into the removed line's slot; that move follows
+     * as a lineChanged at its new index.
+     */
+    public interface Listener {
+        void lineAdded(Cart cart, Line line);
+        void lineChanged(Cart cart, Line line);
+        void lineRemoved(Cart cart, Line line, int index);
+        void cleared(Cart cart);
+    }
+
+    private final HashMap<Integer, Line> byId = new HashMap<>();
+    private final ArrayList<Line> lines = new ArrayList<>();
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private long total = 0;     // minor units
+    private long itemCount = 0;
+
+    private static final Metrics.Counter CHANGES = Metrics.shared().counter("cart.changes");
+
+    public void add(Product p) {
+        add(p, 1);
+    }
+
+    public void add(Product p, int quantity) {
+        if (quantity <= 0) throw new IllegalArgumentException("quantity must be positive");
+        ShopEvents.CartChange event = new ShopEvents.CartChange();
+        event.begin();
+        Line line = byId.get(p.id);
+        total = Math.addExact(total, Math.multiplyExact(p.price, quantity));
+        itemCount += quantity;
+        if (line != null) {
+            line.quantity += quantity;
+            for (Listener l : listeners) l.lineChanged(this, line);
+        } else {
+            line = new Line(p, quantity, lines.size());
+            lines.add(line);
+            byId.put(p.id, line);
+            for (Listener l : listeners) l.lineAdded(this, line);
+        }
+        changed(event, "add", p.id, quantity);
+    }
+
+    /** Sets the quantity of a line; 0 removes it. Returns false if the product is not in the cart. */
+    public boolean setQuantity(int productId, int quantity) {
+        if (quantity < 0) throw new IllegalArgumentException("quantity must be >= 0");
+        Line line = byId.get(productId);
+        if (line == null) return false;
+        if (quantity == 0) return remove(productId);
+        ShopEvents.CartChange event = new ShopEvents.CartChange();
+        event.begin();
+        int change = quantity - line.quantity;
+        total = Math.addExact(total, Math.multiplyExact(line.product.price, change));
+        itemCount += change;
+        line.quantity = quantity;
+        for (Listener l : listeners) l.lineChanged(this, line);
+        changed(event, "setQuantity", productId, change);
+        return true;
+    }
+
+    /** Removes the whole line for this product. */
+    public boolean remove(int productId) {
+        Line line = byId.remove(productId);
+        if (line == null) return false;
+        ShopEvents.CartChange event = new ShopEvents.CartChange();
+        event.begin();
+        int index = line.index;
+        int last = lines.size() - 1;
+        Line moved = lines.remove(last);
+        if (moved != line) {
+            lines.set(index, moved);
+            moved.index = index;
+        }
+        total -= line.subtotal();
+        itemCount -= line.quantity;
+        for (Listener l : listeners) l.lineRemoved(this, line, last);
+        if (moved != line) {
+            for (Listener l : listeners) l.lineChanged(this, moved);
+        }
+        changed(event, "remove", productId, -line.quantity);
+        return true;
+    }
+
+    public void clear() {
+        ShopEvents.CartChange event = new ShopEvents.CartChange();
+        event.begin();
+        int removed = (int) Math.min(Integer.MAX_VALUE, itemCount);
+        byId.clear();
+        lines.clear();
+        total = 0;
+        itemCount = 0;
+        for (Listener l : listeners) l.cleared(this);
+        changed(event, "clear", 0, -removed);
+    }
+
+    private void changed(ShopEvents.CartChange event, String action, int productId, int quantityChange) {
+        CHANGES.increment();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.productId = productId;
+            event.quantityChange = quantityChange;
+            event.lines = lines.size();
+            event.total = total;
+            event.commit();
+        }
+    }
+
+    // -------------------- queries --------------------
+    /** Total in minor units, maintained incrementally. */
+    public long getTotal() {
+        return total;
+    }
+
+    /** Number of items (sum of quantities). */
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public int size() {
+        return lines.size();
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    public Line line(int index) {
+        return lines.get(index);
+    }
+
+    public Line lineFor(int productId) {
+        return byId.get(productId);
+    }
+
+    public List<Line> lines() {
+        return Collections.unmodifiableList(lines);
+    }
+
+    public void addListener(Listener l) {
+        listeners.add(l);
+    }
+
+    public void removeListener(Listener l) {
+        listeners.remove(l);
+    }
+}
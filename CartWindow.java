@@ -0,0 +1,237 @@
+import java.awt.*;
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+
+/**
+ * The cart window. One instance per store window, shown and hidden as needed.
+ * Rows come from a list model that listens to the Cart, so adding, removing or
+ * changing a quantity updates just that row, and the total label follows the
+ * cart's events. Row buttons are painted by a shared renderer; clicks are
+ * mapped back to them through the renderer's layout.
+ */
+@SuppressWarnings("serial")
+public class CartWindow extends JFrame implements Cart.Listener {
+
+    private static final int ROW_H = 56;
+
+    private final Cart cart;
+    private final CartListModel model;
+    private final JList<Cart.Line> list;
+    private final RowRenderer renderer = new RowRenderer();
+    private final JLabel totalLbl = new JLabel();
+    private final JLabel emptyLbl = new JLabel("Your cart is empty.", SwingConstants.CENTER);
+
+    public CartWindow(Cart cart, Component owner, Runnable onCheckout) {
+        super("Your Cart");
+        this.cart = cart;
+        setSize(520, 550);
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+
+        model = new CartListModel(cart);
+        list = new JList<>(model);
+        list.setFixedCellHeight(ROW_H);
+        list.setCellRenderer(renderer);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int i = list.locationToIndex(e.getPoint());
+                if (i < 0) return;
+                Rectangle cell = list.getCellBounds(i, i);
+                if (cell == null || !cell.contains(e.getPoint())) return;
+                onRowClick(model.getElementAt(i), renderer.hit(list, i, cell, e.getPoint()));
+            }
+        });
+
+        Theme.style(totalLbl, Theme.Role.TOTAL);
+        totalLbl.setAlignmentX(Component.CENTER_ALIGNMENT);
+        totalLbl.setBorder(new EmptyBorder(10, 0, 10, 0));
+        Theme.style(emptyLbl, Theme.Role.FORM_LABEL);
+        emptyLbl.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        JButton checkoutBtn = Theme.style(new JButton("Checkout"), Theme.Role.BUTTON);
+        checkoutBtn.setFocusPainted(false);
+        checkoutBtn.setOpaque(true);
+        checkoutBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
+        checkoutBtn.addActionListener(ev -> {
+            if (cart.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Your cart is empty.");
+                return;
+            }
+            onCheckout.run();
+        });
+
+        JPanel bottom = new JPanel();
+        bottom.setLayout(new BoxLayout(bottom, BoxLayout.Y_AXIS));
+        Theme.style(bottom, Theme.Role.DIALOG);
+        bottom.setBorder(new EmptyBorder(0, 0, 10, 0));
+        bottom.add(emptyLbl);
+        bottom.add(totalLbl);
+        bottom.add(checkoutBtn);
+
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.setBorder(new EmptyBorder(10, 10, 10, 10));
+        Theme.style(scroll.getViewport(), Theme.Role.DIALOG);
+        Theme.style((JComponent) getContentPane(), Theme.Role.DIALOG);
+        add(scroll, BorderLayout.CENTER);
+        add(bottom, BorderLayout.SOUTH);
+
+        cart.addListener(this);
+        updateTotal();
+    }
+
+    /** Shows the window (or brings it to the front if already open). */
+    public void open() {
+        setVisible(true);
+        toFront();
+    }
+
+    private void onRowClick(Cart.Line line, String action) {
+        if (action == null) return;
+        switch (action) {
+            case "minus":
+                cart.setQuantity(line.product.id, line.quantity - 1);
+                break;
+            case "plus":
+                cart.add(line.product);
+                break;
+            case "remove":
+                cart.remove(line.product.id);
+                break;
+        }
+    }
+
+    private void updateTotal() {
+        totalLbl.setText("Total: " + Product.formatPrice(cart.getTotal()));
+        emptyLbl.setVisible(cart.isEmpty());
+    }
+
+    // ---------------- cart events: only the label, rows are handled by the model ----------------
+    public void lineAdded(Cart c, Cart.Line line) { updateTotal(); }
+    public void lineChanged(Cart c, Cart.Line line) { updateTotal(); }
+    public void lineRemoved(Cart c, Cart.Line line, int index) { updateTotal(); }
+    public void cleared(Cart c) { updateTotal(); }
+
+    // -------------------- model --------------------
+    // turns cart events into row-level list events
+    @SuppressWarnings("serial")
+    static class CartListModel extends AbstractListModel<Cart.Line> implements Cart.Listener {
+        private final Cart cart;
+        private int size; // row count the list has been told about
+
+        CartListModel(Cart cart) {
+            this.cart = cart;
+            this.size = cart.size();
+            cart.addListener(this);
+        }
+
+        public int getSize() {
+            return cart.size();
+        }
+
+        public Cart.Line getElementAt(int index) {
+            return cart.line(index);
+        }
+
+        public void lineAdded(Cart c, Cart.Line line) {
+            size++;
+            fireIntervalAdded(this, line.index, line.index);
+        }
+
+        public void lineChanged(Cart c, Cart.Line line) {
+            fireContentsChanged(this, line.index, line.index);
+        }
+
+        public void lineRemoved(Cart c, Cart.Line line, int index) {
+            size--;
+            fireIntervalRemoved(this, index, index);
+        }
+
+        public void cleared(Cart c) {
+            int old = size;
+            size = 0;
+            if (old > 0) fireIntervalRemoved(this, 0, old - 1);
+        }
+    }
+
+    // -------------------- row renderer --------------------
+    @SuppressWarnings("serial")
+    private static class RowRenderer extends JPanel implements ListCellRenderer<Cart.Line> {
+        // two plain labels rather than one HTML label: the name is shown as is, never parsed
+        private final JLabel name = new JLabel();
+        private final JLabel detail = new JLabel();
+        private final JLabel qty = new JLabel("", SwingConstants.CENTER);
+        private final JButton minus = rowButton("-");
+        private final JButton plus = rowButton("+");
+        private final JButton remove = rowButton("Remove");
+        private Theme theme; // the theme the row was last styled with
+
+        RowRenderer() {
+            super(new BorderLayout());
+            JPanel text = new JPanel(new GridLayout(2, 1));
+            text.setOpaque(false);
+            text.setBorder(new EmptyBorder(5, 10, 5, 10));
+            name.putClientProperty("html.disable", Boolean.TRUE); // even a name starting with <html>
+            text.add(name);
+            text.add(detail);
+            qty.setPreferredSize(new Dimension(36, 20));
+
+            JPanel actions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 4, 8));
+            actions.setOpaque(false);
+            actions.add(minus);
+            actions.add(qty);
+            actions.add(plus);
+            actions.add(remove);
+
+            add(text, BorderLayout.CENTER);
+            add(actions, BorderLayout.EAST);
+            applyTheme(Theme.current());
+        }
+
+        private static JButton rowButton(String text) {
+            JButton b = new JButton(text);
+            b.setFocusPainted(false);
+            b.setOpaque(true);
+            return b;
+        }
+
+        // the row only follows a theme change on its next paint
+        private void applyTheme(Theme t) {
+            theme = t;
+            t.apply(this, Theme.Role.CART_ROW, false);
+            t.apply(name, Theme.Role.CART_ROW_TEXT, false);
+            t.apply(detail, Theme.Role.CART_ROW_DETAIL, false);
+            t.apply(qty, Theme.Role.CART_ROW_TEXT, false);
+            t.apply(minus, Theme.Role.ROW_BUTTON, false);
+            t.apply(plus, Theme.Role.ROW_BUTTON, false);
+            t.apply(remove, Theme.Role.DANGER_BUTTON, false);
+        }
+
+        public Component getListCellRendererComponent(JList<? extends Cart.Line> list, Cart.Line line,
+                                                      int index, boolean selected, boolean focused) {
+            if (theme != Theme.current()) applyTheme(Theme.current());
+            name.setText(line.product.name);
+            detail.setText(line.product.displayPrice() + " each · " + Product.formatPrice(line.subtotal()));
+            qty.setText("x " + line.quantity);
+            return this;
+        }
+
+        // which painted button (minus / plus / remove) is under p, if any
+        String hit(JList<Cart.Line> list, int index, Rectangle cell, Point p) {
+            getListCellRendererComponent(list, list.getModel().getElementAt(index), index, false, false);
+            setBounds(0, 0, cell.width, cell.height);
+            doLayout();
+            ((Container) getComponent(1)).doLayout();
+            Point local = new Point(p.x - cell.x, p.y - cell.y);
+            if (contains(minus, local)) return "minus";
+            if (contains(plus, local)) return "plus";
+            if (contains(remove, local)) return "remove";
+            return null;
+        }
+
+        private boolean contains(JComponent c, Point local) {
+            Rectangle r = SwingUtilities.convertRectangle(c.getParent(), c.getBounds(), this);
+            return r.contains(local);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * In-memory product catalog, indexed by id and by category.
+ * Loaded from a ';'-separated text file (see catalog.csv) one line at a time,
+ * so large catalogs are never held in memory as text.
+ */
+public class Catalog {
+
+    private final ArrayList<Product> products = new ArrayList<>();
+    private final HashMap<Integer, Product> byId = new HashMap<>();
+    private final HashMap<String, Product> byName = new HashMap<>();
+    private final LinkedHashMap<String, ArrayList<Product>> byCategory = new LinkedHashMap<>();
+    // categories declared with a "category" line, with their card image
+    private final LinkedHashMap<String, String> categoryImages = new LinkedHashMap<>();
+    private int skippedLines = 0;
+    private volatile boolean frozen = false;
+    private final java.util.concurrent.CopyOnWriteArrayList<Listener> listeners = new java.util.concurrent.CopyOnWriteArrayList<>();
+
+    /** Notified when products are added to or removed from a loaded catalog. */
+    public interface Listener {
+        void productAdded(Product p);
+        void productRemoved(Product p);
+    }
+
+    public static Catalog load(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(in);
+        }
+    }
+
+    public static Catalog parse(Reader reader) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Catalog c = new Catalog();
+        String[] f = new String[6];
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isEmpty() || line.charAt(0) == '#') continue;
+            int n = split(line, f);
+            try {
+                if (n == 3 && f[0].equals("category")) {
+                    c.categoryImages.put(f[1], f[2]);
+                    c.byCategory.computeIfAbsent(f[1], k -> new ArrayList<>());
+                } else if (n == 6 && f[0].equals("product")) {
+                    c.add(new Product(Integer.parseInt(f[1]), f[2], f[3], Long.parseLong(f[4]), f[5]));
+                } else {
+                    c.skippedLines++;
+                }
+            } catch (IllegalArgumentException e) {
+                c.skippedLines++;
+            }
+        }
+        if (c.skippedLines > 0) {
+            System.err.println("Catalog: skipped " + c.skippedLines + " malformed line(s)");
+        }
+        return c;
+    }
+
+    // splits on ';' without regex; returns the number of fields (max out.length + 1)
+    private static int split(String line, String[] out) {
+        int n = 0, start = 0;
+        while (n < out.length) {
+            int end = line.indexOf(';', start);
+            if (end < 0) {
+                out[n++] = line.substring(start).trim();
+                return n;
+            }
+            out[n++] = line.substring(start, end).trim();
+            start = end + 1;
+        }
+        return n + 1; // too many fields
+    }
+
+    /**
+     * No more add / remove from now on: a frozen catalog can be read from any
+     * number of threads (store windows, HTTP handlers) without locking.
+     */
+    public Catalog freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    public void add(Product p) {
+        if (frozen) throw new IllegalStateException("Catalog is frozen");
+        if (byId.putIfAbsent(p.id, p) != null) {
+            throw new IllegalArgumentException("Duplicate product id " + p.id);
+        }
+        products.add(p);
+        byName.putIfAbsent(p.name, p);
+        byCategory.computeIfAbsent(p.category, k -> new ArrayList<>()).add(p);
+        for (Listener l : listeners) l.productAdded(p);
+    }
+
+    public Product remove(int id) {
+        if (frozen) throw new IllegalStateException("Catalog is frozen");
+        Product p = byId.remove(id);
+        if (p == null) return null;
+        products.remove(p);
+        byName.remove(p.name, p);
+        List<Product> list = byCategory.get(p.category);
+        if (list != null) list.remove(p);
+        for (Listener l : listeners) l.productRemoved(p);
+        return p;
+    }
+
+    public void addListener(Listener l) {
+        listeners.add(l);
+    }
+
+    public void removeListener(Listener l) {
+        listeners.remove(l);
+    }
+
+    // -------------------- queries --------------------
+    public Product byId(int id) {
+        return byId.get(id);
+    }
+
+    public List<Product> all() {
+        return Collections.unmodifiableList(products);
+    }
+
+    public List<Product> inCategory(String category) {
+        List<Product> list = byCategory.get(category);
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    /** Declared categories (name -> card image), in file order. */
+    public Map<String, String> categories() {
+        return Collections.unmodifiableMap(categoryImages);
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    /** Product with the given display name, or null (used to read old order files). */
+    public Product byName(String name) {
+        return byName.get(name);
+    }
+}
@@ -0,0 +1,53 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Writes a synthetic catalog for load tests.
+ *
+ * Usage: java -cp . CatalogGenerator <products> <output file>
+ * then run the app with -Dfurniture.catalog=<output file>
+ */
+public class CatalogGenerator {
+
+    private static final String[][] CATEGORIES = {
+            {"Chairs", "armchair.jpg", "lounge.jpg"},
+            {"Tables", "nightstand.jpg", "dinning.jpg"},
+            {"Lamps", "lamp.jpg"},
+            {"Bedroom", "bedroom.jpg", "bedroom2.jpg"},
+            {"Decor", "mirror.jpg"},
+            {"Living", "living.jpg"},
+    };
+    private static final String[] ADJECTIVES = {"Oak", "Walnut", "Bouclé", "Velvet", "Rattan", "Linen", "Marble", "Nordic", "Curved", "Woven"};
+    private static final String[] NOUNS = {"Armchair", "Stool", "Table", "Lamp", "Bed", "Mirror", "Sofa", "Shelf", "Bench", "Cabinet"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java CatalogGenerator <products> <output file>");
+            return;
+        }
+        int count = Integer.parseInt(args[0]);
+        Random rnd = new Random(42);
+
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            out.write("# generated catalog: " + count + " products\n");
+            for (String[] c : CATEGORIES) {
+                if (!c[0].equals("Decor") && !c[0].equals("Living")) {
+                    out.write("category;" + c[0] + ";" + c[1] + "\n");
+                }
+            }
+            for (int i = 1; i <= count; i++) {
+                String[] c = CATEGORIES[rnd.nextInt(CATEGORIES.length)];
+                String name = ADJECTIVES[rnd.nextInt(ADJECTIVES.length)] + " "
+                        + NOUNS[rnd.nextInt(NOUNS.length)] + " " + i;
+                long price = (1000 + rnd.nextInt(400_000)) * 100L;
+                out.write("product;" + i + ";" + name + ";" + c[0] + ";" + price + ";"
+                        + c[1 + rnd.nextInt(c.length - 1)] + "\n");
+            }
+        }
+        System.out.println("Wrote " + count + " products to " + args[1]);
+    }
+}
@@ -0,0 +1,141 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checkout without Swing: validate the customer details, price the items
+ * against the catalog, persist the order through the OrderJournal. The
+ * checkout form and CheckoutReplay both go through here. Thread-safe as long
+ * as the catalog is not changed meanwhile.
+ */
+public class CheckoutEngine {
+
+    /** What the customer typed in the checkout form. */
+    public static class Customer {
+        final String name, phone, email, address;
+
+        public Customer(String name, String phone, String email, String address) {
+            this.name = name;
+            this.phone = phone;
+            this.email = email;
+            this.address = address;
+        }
+    }
+
+    /** A checkout refused before anything was written; the message is for the customer. */
+    public static class CheckoutException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        public CheckoutException(String message) {
+            super(message);
+        }
+    }
+
+    private final Catalog catalog; // null: keep the prices the items came with
+    private final OrderJournal journal;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public CheckoutEngine(Catalog catalog, OrderJournal journal) {
+        this.catalog = catalog;
+        this.journal = journal;
+    }
+
+    /** Validates, prices and persists the current cart lines (call on the thread that owns the cart). */
+    public CompletableFuture<Order> checkout(Customer customer, Cart cart) {
+        return checkout(customer, Order.fromCart(cart).items);
+    }
+
+    /** The future completes once the order is durable, or fails with a CheckoutException or the I/O error. */
+    public CompletableFuture<Order> checkout(Customer customer, List<Order.Item> items) {
+        ShopEvents.CheckoutValidation event = new ShopEvents.CheckoutValidation();
+        event.begin();
+        long t0 = System.nanoTime();
+        Order order;
+        try {
+            validate(customer);
+            order = price(items);
+        } catch (CheckoutException e) {
+            rejected.incrementAndGet();
+            validated(event, t0, "checkout.rejected", e.getMessage(), items.size(), 0);
+            CompletableFuture<Order> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        accepted.incrementAndGet();
+        validated(event, t0, "checkout.accepted", null, items.size(), order.total);
+        return persist(order);
+    }
+
+    private static void validated(ShopEvents.CheckoutValidation event, long t0, String outcome, String reason, int items, long total) {
+        Metrics m = Metrics.shared();
+        m.timer("checkout.validate").record(System.nanoTime() - t0);
+        m.counter(outcome).increment();
+        if (event.shouldCommit()) {
+            event.accepted = reason == null;
+            event.reason = reason;
+            event.items = items;
+            event.total = total;
+            event.commit();
+        }
+    }
+
+    // -------------------- steps --------------------
+
+    public void validate(Customer c) throws CheckoutException {
+        if (blank(c.name) || blank(c.phone) || blank(c.email) || blank(c.address)) {
+            throw new CheckoutException("Please fill in all fields.");
+        }
+        if (!digitsOnly(c.phone)) throw new CheckoutException("Phone number must contain digits only.");
+        if (!EmailAddress.isValid(c.email.trim())) throw new CheckoutException("Invalid email address.");
+    }
+
+    /** The order at catalog prices (items the catalog no longer has keep their price). */
+    public Order price(List<Order.Item> items) throws CheckoutException {
+        if (items.isEmpty()) throw new CheckoutException("Your cart is empty.");
+        ArrayList<Order.Item> priced = new ArrayList<>(items.size());
+        for (Order.Item i : items) {
+            if (i.quantity <= 0) throw new CheckoutException("Invalid quantity for " + i.name + ".");
+            Product p = catalog == null ? null : catalog.byId(i.productId);
+            priced.add(p == null || p.price == i.unitPrice ? i : new Order.Item(i.productId, i.name, p.price, i.quantity));
+        }
+        try {
+            return new Order(LocalDateTime.now(), priced);
+        } catch (ArithmeticException e) {
+            throw new CheckoutException("Order total is too large.");
+        }
+    }
+
+    public CompletableFuture<Order> persist(Order order) {
+        try {
+            return journal.submit(order).thenApply(o -> {
+                Metrics.shared().orderPersisted(o);
+                return o;
+            });
+        } catch (Exception e) {
+            CompletableFuture<Order> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static boolean blank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
+    // same as matches("[0-9]+")
+    private static boolean digitsOnly(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    public long getAcceptedCount() { return accepted.get(); }
+    public long getRejectedCount() { return rejected.get(); }
+}
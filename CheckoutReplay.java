@@ -0,0 +1,128 @@
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays an order log (orders.txt format, e.g. from OrderLogGenerator)
+ * through CheckoutEngine on several threads, each thread acting as one
+ * customer after another: validate, price, persist, wait until durable.
+ * Reports orders/sec and the latency of a checkout (p50 / p99 / max).
+ * Orders go to a temporary log unless --out is given.
+ *
+ * Usage: java -cp . CheckoutReplay <order log> [--threads N] [--limit N]
+ *                   [--durability PER_ORDER|BATCHED|ASYNC] [--invalid PERCENT]
+ *                   [--catalog catalog.csv] [--out file]
+ */
+public class CheckoutReplay {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: java CheckoutReplay <order log> [--threads N] [--limit N] [--durability MODE] [--invalid PERCENT] [--catalog file] [--out file]");
+            return;
+        }
+        Path source = Paths.get(args[0]);
+        int threads = 8, limit = Integer.MAX_VALUE, invalidPercent = 0;
+        OrderJournal.Durability mode = OrderJournal.Durability.BATCHED;
+        String catalogFile = "catalog.csv", out = null;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--limit": limit = Integer.parseInt(args[++i]); break;
+                case "--durability": mode = OrderJournal.Durability.valueOf(args[++i]); break;
+                case "--invalid": invalidPercent = Integer.parseInt(args[++i]); break;
+                case "--catalog": catalogFile = args[++i]; break;
+                case "--out": out = args[++i]; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        // load everything first so reading the file is not part of the measurement
+        Catalog catalog = Catalog.load(Paths.get(catalogFile));
+        List<List<Order.Item>> carts = new ArrayList<>();
+        try (BufferedReader r = Files.newBufferedReader(source, StandardCharsets.UTF_8);
+             OrderTextParser parser = new OrderTextParser(r)) {
+            Order o;
+            while (carts.size() < limit && (o = parser.next()) != null) {
+                List<Order.Item> items = new ArrayList<>(o.items.size());
+                for (Order.Item i : o.items) {
+                    Product p = catalog.byName(i.name);
+                    items.add(new Order.Item(p != null ? p.id : 0, i.name, i.unitPrice, i.quantity));
+                }
+                carts.add(items);
+            }
+        }
+        CheckoutEngine.Customer[] customers = customers(carts.size(), invalidPercent);
+
+        Path file = out != null ? Paths.get(out) : Files.createTempFile("orders-replay", ".txt");
+        long[][] latencies = new long[threads][];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        double secs;
+        try (OrderJournal journal = new OrderJournal(file, mode)) {
+            CheckoutEngine engine = new CheckoutEngine(catalog, journal);
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int slot = t;
+                workers[t] = new Thread(() -> {
+                    long[] lat = new long[1024];
+                    int n = 0;
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    int i;
+                    while ((i = next.getAndIncrement()) < carts.size()) {
+                        long s = System.nanoTime();
+                        try {
+                            engine.checkout(customers[i], carts.get(i)).join();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet(); // refused by validation, or not written
+                        }
+                        if (n == lat.length) lat = Arrays.copyOf(lat, n * 2);
+                        lat[n++] = System.nanoTime() - s;
+                    }
+                    latencies[slot] = Arrays.copyOf(lat, n);
+                }, "replay-" + t);
+                workers[t].start();
+            }
+            long t0 = System.nanoTime();
+            start.countDown();
+            for (Thread w : workers) w.join();
+            secs = (System.nanoTime() - t0) / 1e9;
+
+            long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).toArray();
+            Arrays.sort(all);
+            System.out.printf("%d checkouts (%d accepted, %d refused or failed) on %d threads, %s%n",
+                    all.length, engine.getAcceptedCount(), failed.get(), threads, mode);
+            System.out.printf("%.0f orders/sec   p50 %.2f ms   p99 %.2f ms   max %.2f ms   (%d batches, %d fsyncs)%n",
+                    all.length / secs, pct(all, 0.50), pct(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e6,
+                    journal.getBatchCount(), journal.getForceCount());
+        } finally {
+            if (out == null) Files.deleteIfExists(file);
+        }
+    }
+
+    // made-up customers; invalidPercent of them have a phone number with a letter in it
+    private static CheckoutEngine.Customer[] customers(int n, int invalidPercent) {
+        CheckoutEngine.Customer[] c = new CheckoutEngine.Customer[n];
+        for (int i = 0; i < n; i++) {
+            String phone = (i % 100) < invalidPercent ? "05x" + i : String.format("05%08d", i);
+            c[i] = new CheckoutEngine.Customer("Customer " + i, phone, "customer" + i + "@example.com", i + " Rue Didouche Mourad, Alger");
+        }
+        return c;
+    }
+
+    private static double pct(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+}
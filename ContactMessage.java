@@ -0,0 +1,23 @@
+/**
+ * A message from the contact form, as handed to the Outbox.
+ */
+public class ContactMessage {
+
+    final String name;
+    final String email;
+    final String subject;
+    final String body;
+    final long createdMillis;
+
+    public ContactMessage(String name, String email, String subject, String body) {
+        this(name, email, subject, body, System.currentTimeMillis());
+    }
+
+    ContactMessage(String name, String email, String subject, String body, long createdMillis) {
+        this.name = name;
+        this.email = email;
+        this.subject = subject;
+        this.body = body;
+        this.createdMillis = createdMillis;
+    }
+}
@@ -0,0 +1,385 @@
+import java.awt.*;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+
+/**
+ * Times every event the EDT dispatches. Installed as the system EventQueue
+ * (FurnitureUI.main does it unless -Dfurniture.edt.monitor=false), it keeps
+ * a LatencyHistogram per kind of event (event class + id, source class).
+ * A watchdog thread looks at the EDT every few milliseconds; once one event
+ * has been running longer than the threshold (-Dfurniture.edt.stallMs,
+ * default 100) it takes a stack sample of the EDT, so the report shows what
+ * the EDT was doing while it was stuck.
+ *
+ * Time spent inside a nested event loop (a modal dialog opened by a handler)
+ * is not charged to the handler: it is idle time, or the nested events' own.
+ *
+ * Ctrl+Shift+E in a store window opens the overlay (live stats, "Dump" to a
+ * text file in -Dfurniture.edt.dumpDir, default the working directory).
+ */
+public class EdtMonitor extends EventQueue {
+
+    private static final int MAX_STALLS = 64;
+    private static final int MAX_DEPTH = 64;
+
+    private static EdtMonitor installed;
+
+    /** Pushes the monitor onto the system event queue (once); returns it. */
+    public static synchronized EdtMonitor install() {
+        if (installed == null) {
+            installed = new EdtMonitor(Long.getLong("furniture.edt.stallMs", 100));
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(installed);
+        }
+        return installed;
+    }
+
+    /** The installed monitor, or null. */
+    public static synchronized EdtMonitor installed() {
+        return installed;
+    }
+
+    // ---------------- per event kind ----------------
+    private static final class Key {
+        Class<?> eventClass;
+        int id;
+        Class<?> sourceClass;
+
+        Key() {}
+
+        Key(Key k) {
+            eventClass = k.eventClass;
+            id = k.id;
+            sourceClass = k.sourceClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return k.eventClass == eventClass && k.id == id && k.sourceClass == sourceClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return (eventClass.hashCode() * 31 + id) * 31 + (sourceClass == null ? 0 : sourceClass.hashCode());
+        }
+    }
+
+    static final class Kind {
+        final String label;
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        double totalMillis() {
+            return latency.mean() * latency.count() / 1e6;
+        }
+    }
+
+    /** One event that ran past the threshold. */
+    public static final class Stall {
+        final long seq;
+        final long startedMillis;
+        final String event;
+        final StackTraceElement[] stack;   // null: it ended before the watchdog looked
+        final long sampledAfterNanos;
+        volatile long durationNanos = -1;  // -1 while still running
+
+        Stall(long seq, long startedMillis, String event, StackTraceElement[] stack, long sampledAfterNanos) {
+            this.seq = seq;
+            this.startedMillis = startedMillis;
+            this.event = event;
+            this.stack = stack;
+            this.sampledAfterNanos = sampledAfterNanos;
+        }
+    }
+
+    private final long thresholdNanos;
+    private final ConcurrentHashMap<Key, Kind> kinds = new ConcurrentHashMap<>();
+    private final ArrayDeque<Stall> stalls = new ArrayDeque<>(); // newest first; guarded by itself
+    private final AtomicLong stallCount = new AtomicLong();
+    private final LatencyHistogram all = new LatencyHistogram();
+
+    // EDT only
+    private final Key probe = new Key();
+    private final long[] excluded = new long[MAX_DEPTH]; // per nesting depth: time spent in nested loops
+    private int depth;
+    private long nextSeq;
+
+    // read by the watchdog
+    private volatile Thread edt;
+    private volatile AWTEvent current;
+    private volatile long currentSeq;
+    private volatile long busySince;    // start of the EDT's current stretch of work, 0 while it waits
+    private volatile Stall sampled;     // last stall the watchdog sampled
+
+    public EdtMonitor(long thresholdMillis) {
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+        Thread watchdog = new Thread(this::watch, "edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    // -------------------- on the EDT --------------------
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        edt = Thread.currentThread();
+        int d = depth++;
+        if (d < MAX_DEPTH) excluded[d] = 0;
+        AWTEvent outer = current;
+        long outerSeq = currentSeq;
+        long seq = ++nextSeq;
+        long start = System.nanoTime();
+        current = event;
+        currentSeq = seq;
+        busySince = start;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long end = System.nanoTime();
+            depth = d;
+            long own = end - start - (d < MAX_DEPTH ? excluded[d] : 0);
+            if (d > 0 && d <= MAX_DEPTH) excluded[d - 1] += end - start;
+            current = outer;
+            currentSeq = outerSeq;
+            busySince = end; // back in the outer handler or the dispatch loop
+            record(event, seq, start, own);
+        }
+    }
+
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException {
+        long waitStart = System.nanoTime();
+        busySince = 0;
+        try {
+            return super.getNextEvent();
+        } finally {
+            long now = System.nanoTime();
+            // waiting in a modal dialog's loop is not the handler's own time
+            if (depth > 0 && depth <= MAX_DEPTH) excluded[depth - 1] += now - waitStart;
+            busySince = now;
+        }
+    }
+
+    private void record(AWTEvent event, long seq, long start, long own) {
+        Object source = event.getSource();
+        probe.eventClass = event.getClass();
+        probe.id = event.getID();
+        probe.sourceClass = source == null ? null : source.getClass();
+        Kind kind = kinds.get(probe);
+        if (kind == null) kind = kinds.computeIfAbsent(new Key(probe), k -> new Kind(label(event)));
+        kind.latency.record(own);
+        all.record(own);
+
+        if (own > thresholdNanos) {
+            Stall s = sampled;
+            if (s != null && s.seq == seq) {
+                s.durationNanos = own;
+            } else {
+                Stall late = new Stall(seq, System.currentTimeMillis() - (System.nanoTime() - start) / 1_000_000,
+                        label(event) + describe(source), null, 0);
+                late.durationNanos = own;
+                addStall(late);
+            }
+        }
+    }
+
+    // -------------------- watchdog --------------------
+    private void watch() {
+        long period = Math.max(5_000_000L, thresholdNanos / 4);
+        while (true) {
+            try {
+                Thread.sleep(period / 1_000_000, (int) (period % 1_000_000));
+            } catch (InterruptedException e) {
+                return;
+            }
+            long since = busySince;
+            long seq = currentSeq;
+            Thread t = edt;
+            Stall last = sampled;
+            if (since == 0 || t == null || (last != null && last.seq == seq)) continue;
+            long running = System.nanoTime() - since;
+            if (running < thresholdNanos) continue;
+            StackTraceElement[] stack = t.getStackTrace();
+            if (busySince != since) continue; // it finished while we looked
+            AWTEvent e = current;
+            String what = e == null ? "(between events)" : label(e) + describe(e.getSource());
+            Stall s = new Stall(seq, System.currentTimeMillis() - running / 1_000_000, what, stack, running);
+            sampled = s;
+            addStall(s);
+        }
+    }
+
+    private void addStall(Stall s) {
+        stallCount.incrementAndGet();
+        synchronized (stalls) {
+            stalls.addFirst(s);
+            if (stalls.size() > MAX_STALLS) stalls.removeLast();
+        }
+    }
+
+    // "MouseEvent MOUSE_CLICKED @ JButton"
+    private static String label(AWTEvent e) {
+        String p = e.paramString();
+        int comma = p.indexOf(',');
+        Object src = e.getSource();
+        return e.getClass().getSimpleName() + " " + (comma < 0 ? p : p.substring(0, comma))
+                + " @ " + (src == null ? "null" : className(src.getClass()));
+    }
+
+    private static String className(Class<?> c) {
+        String s = c.getSimpleName();
+        return s.isEmpty() ? c.getName() : s;
+    }
+
+    // the source as a person would recognize it: button text, window title...
+    private static String describe(Object source) {
+        String text = null;
+        if (source instanceof AbstractButton) text = ((AbstractButton) source).getText();
+        else if (source instanceof JLabel) text = ((JLabel) source).getText();
+        else if (source instanceof Frame) text = ((Frame) source).getTitle();
+        else if (source instanceof Dialog) text = ((Dialog) source).getTitle();
+        return text == null || text.isEmpty() ? "" : " \"" + text + "\"";
+    }
+
+    // -------------------- reports --------------------
+
+    public long getStallCount() { return stallCount.get(); }
+    public long getThresholdMillis() { return thresholdNanos / 1_000_000; }
+    public LatencyHistogram getAllEvents() { return all; }
+
+    public List<Stall> recentStalls() {
+        synchronized (stalls) {
+            return new ArrayList<>(stalls);
+        }
+    }
+
+    public void reset() {
+        kinds.clear();
+        all.reset();
+        stallCount.set(0);
+        synchronized (stalls) {
+            stalls.clear();
+        }
+    }
+
+    /** Per event kind, the ones with the most total time first (at most limit lines), then recent stalls. */
+    public String report(int limit, int stallFrames) {
+        StringWriter out = new StringWriter();
+        PrintWriter w = new PrintWriter(out);
+        w.printf("EDT monitor, %s: %,d events, stall threshold %d ms, %,d stalls%n",
+                LocalDateTime.now().withNano(0), all.count(), getThresholdMillis(), getStallCount());
+        w.println("all events " + all.summary());
+        w.println();
+        w.printf("%9s %10s %9s %9s %9s %9s  %s%n", "count", "total ms", "mean ms", "p99 ms", "p99.9 ms", "max ms", "event @ source");
+        List<Kind> sorted = new ArrayList<>(kinds.values());
+        sorted.sort((a, b) -> Double.compare(b.totalMillis(), a.totalMillis()));
+        for (Kind k : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            LatencyHistogram h = k.latency;
+            w.printf("%9d %10.1f %9.3f %9.2f %9.2f %9.2f  %s%n", h.count(), k.totalMillis(), h.mean() / 1e6,
+                    h.percentile(0.99) / 1e6, h.percentile(0.999) / 1e6, h.max() / 1e6, k.label);
+        }
+        if (sorted.size() > limit) w.printf("%9s (%d more kinds)%n", "", sorted.size() - limit);
+
+        List<Stall> recent = recentStalls();
+        if (!recent.isEmpty()) {
+            w.println();
+            w.println("stalls, newest first:");
+            DateTimeFormatter time = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+            for (Stall s : recent) {
+                String took = s.durationNanos < 0 ? "still running" : String.format("%.0f ms", s.durationNanos / 1e6);
+                w.printf("  %s  %s  %s%n", time.format(LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(s.startedMillis),
+                        java.time.ZoneId.systemDefault())), took, s.event);
+                if (s.stack == null) {
+                    w.println("      (finished before the watchdog sampled it)");
+                    continue;
+                }
+                w.printf("      EDT after %.0f ms:%n", s.sampledAfterNanos / 1e6);
+                int n = Math.min(stallFrames, s.stack.length);
+                for (int i = 0; i < n; i++) w.println("        at " + s.stack[i]);
+                if (s.stack.length > n) w.println("        ... " + (s.stack.length - n) + " more");
+            }
+        }
+        w.flush();
+        return out.toString();
+    }
+
+    /** Writes the full report (all kinds, whole stacks) to a new file in the dump directory; returns it. */
+    public Path dump() throws IOException {
+        Path dir = Paths.get(System.getProperty("furniture.edt.dumpDir", "."));
+        Files.createDirectories(dir);
+        Path file = dir.resolve("edt-monitor-" + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").format(LocalDateTime.now()) + ".txt");
+        Files.write(file, report(Integer.MAX_VALUE, Integer.MAX_VALUE).getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    // -------------------- overlay --------------------
+    private JDialog overlay;
+
+    /** Shows (or brings back) the stats window, refreshed every second. EDT only. */
+    public void showOverlay(Window owner) {
+        if (overlay != null) {
+            overlay.setVisible(true);
+            overlay.toFront();
+            return;
+        }
+        JDialog d = new JDialog(owner, "EDT monitor", Dialog.ModalityType.MODELESS);
+        d.setAlwaysOnTop(true);
+        JTextArea text = new JTextArea(30, 110);
+        text.setEditable(false);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+        JButton dump = new JButton("Dump");
+        dump.addActionListener(e -> {
+            try {
+                JOptionPane.showMessageDialog(d, "Written to " + dump().toAbsolutePath());
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(d, "Could not write the dump: " + ex.getMessage());
+            }
+        });
+        JButton reset = new JButton("Reset");
+        reset.addActionListener(e -> reset());
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.setBorder(new EmptyBorder(4, 4, 4, 4));
+        buttons.add(reset);
+        buttons.add(dump);
+
+        Timer refresh = new Timer(1000, e -> {
+            int caret = text.getCaretPosition();
+            text.setText(report(15, 12));
+            text.setCaretPosition(Math.min(caret, text.getDocument().getLength()));
+        });
+        refresh.setInitialDelay(0);
+        refresh.start();
+        d.addWindowListener(new java.awt.event.WindowAdapter() {
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                refresh.stop();
+                overlay = null;
+            }
+        });
+        d.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+
+        d.add(new JScrollPane(text), BorderLayout.CENTER);
+        d.add(buttons, BorderLayout.SOUTH);
+        d.pack();
+        d.setLocationRelativeTo(owner);
+        overlay = d;
+        d.setVisible(true);
+    }
+}
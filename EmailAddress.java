@@ -0,0 +1,62 @@
+/**
+ * Hand-written email address checks, used instead of matching
+ * "^.+@.+\\..+$" on every call. An address is valid when it has a local part
+ * of 1-64 characters, one '@', and a domain of dot-separated labels (letters,
+ * digits, '-', not starting or ending with '-') with at least one dot.
+ * No whitespace or control characters anywhere.
+ */
+public final class EmailAddress {
+
+    private EmailAddress() {
+    }
+
+    public static boolean isValid(CharSequence s) {
+        return isValid(s, 0, s.length());
+    }
+
+    public static boolean isValid(CharSequence s, int from, int to) {
+        int len = to - from;
+        if (len < 5 || len > 254) return false; // a@b.c
+        int at = -1;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c <= ' ' || c == 0x7F) return false;
+            if (c == '@') {
+                if (at >= 0) return false;
+                at = i;
+            }
+        }
+        int local = at - from;
+        if (local < 1 || local > 64) return false;
+
+        // domain: labels of [A-Za-z0-9-] (or non-ASCII), at least two of them
+        int labels = 0, labelLen = 0;
+        char prev = '.';
+        for (int i = at + 1; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '.') {
+                if (labelLen == 0 || prev == '-') return false;
+                labels++;
+                labelLen = 0;
+            } else if (c == '-') {
+                if (labelLen == 0) return false;
+                labelLen++;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c > 0x7F) {
+                labelLen++;
+            } else {
+                return false;
+            }
+            if (labelLen > 63) return false;
+            prev = c;
+        }
+        return labelLen > 0 && prev != '-' && labels >= 1;
+    }
+
+    /** Trimmed and lower-cased if valid, otherwise null. */
+    public static String normalize(String raw) {
+        if (raw == null) return null;
+        String s = raw.trim();
+        if (!isValid(s)) return null;
+        return s.toLowerCase(java.util.Locale.ROOT);
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.*;
+
+/**
+ * Category / price / text filtering over the catalog without scanning it.
+ * Products are numbered by their position in the catalog; each category keeps
+ * a BitSet of positions and a position array sorted by price answers a price
+ * range with two binary searches. Combining filters is a BitSet AND.
+ * The index is rebuilt lazily after catalog changes.
+ */
+public class FacetIndex implements Catalog.Listener {
+
+    private final Catalog catalog;
+    private final SearchIndex searchIndex;
+
+    private Product[] products = new Product[0];
+    private final HashMap<String, BitSet> byCategory = new HashMap<>();
+    private final HashMap<Integer, Integer> positionById = new HashMap<>();
+    private int[] byPrice = new int[0];      // positions sorted by price
+    private long[] sortedPrices = new long[0];
+    private boolean dirty = true;
+
+    public FacetIndex(Catalog catalog, SearchIndex searchIndex) {
+        this.catalog = catalog;
+        this.searchIndex = searchIndex;
+        catalog.addListener(this);
+    }
+
+    public synchronized void productAdded(Product p) {
+        dirty = true;
+    }
+
+    public synchronized void productRemoved(Product p) {
+        dirty = true;
+    }
+
+    private void rebuild() {
+        products = catalog.all().toArray(new Product[0]);
+        byCategory.clear();
+        positionById.clear();
+        Integer[] order = new Integer[products.length];
+        for (int i = 0; i < products.length; i++) {
+            Product p = products[i];
+            byCategory.computeIfAbsent(p.category, k -> new BitSet(products.length)).set(i);
+            positionById.put(p.id, i);
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> products[i].price));
+        byPrice = new int[order.length];
+        sortedPrices = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            byPrice[i] = order[i];
+            sortedPrices[i] = products[order[i]].price;
+        }
+        dirty = false;
+    }
+
+    /**
+     * Products matching all given facets, in catalog order.
+     * category / text may be null, minPrice / maxPrice (minor units, inclusive) may be -1.
+     */
+    public synchronized List<Product> filter(String category, long minPrice, long maxPrice, String text) {
+        if (dirty) rebuild();
+        int n = products.length;
+
+        BitSet result = new BitSet(n);
+        result.set(0, n);
+        if (category != null) {
+            BitSet c = byCategory.get(category);
+            if (c == null) return Collections.emptyList();
+            result.and(c);
+        }
+        if (minPrice >= 0 || maxPrice >= 0) {
+            result.and(priceRange(minPrice < 0 ? Long.MIN_VALUE : minPrice, maxPrice < 0 ? Long.MAX_VALUE : maxPrice));
+        }
+        if (text != null && !text.trim().isEmpty()) {
+            BitSet t = new BitSet(n);
+            searchIndex.forEachMatch(text, id -> {
+                Integer pos = positionById.get(id);
+                if (pos != null) t.set(pos);
+            });
+            result.and(t);
+        }
+        return new Selection(products, result);
+    }
+
+    private BitSet priceRange(long min, long max) {
+        int from = lowerBound(sortedPrices, min);
+        int to = lowerBound(sortedPrices, max == Long.MAX_VALUE ? max : max + 1);
+        BitSet bits = new BitSet(products.length);
+        for (int i = from; i < to; i++) bits.set(byPrice[i]);
+        return bits;
+    }
+
+    // first index whose value is >= key
+    private static int lowerBound(long[] a, long key) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // read-only list view over the set bits, so results are not copied into Product lists
+    private static class Selection extends AbstractList<Product> {
+        private final Product[] products;
+        private final int[] positions;
+
+        Selection(Product[] products, BitSet bits) {
+            this.products = products;
+            this.positions = bits.stream().toArray();
+        }
+
+        public Product get(int index) {
+            return products[positions[index]];
+        }
+
+        public int size() {
+            return positions.length;
+        }
+    }
+}
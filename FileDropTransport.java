@@ -0,0 +1,52 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outbox transport that "sends" by dropping one RFC 822 style .eml file per
+ * message in a directory, for a mail relay or a person to pick up. Each file
+ * is written under a temporary name and moved into place, so a reader never
+ * sees half a message. Re-sending a message overwrites its own file.
+ */
+public class FileDropTransport implements Outbox.Transport {
+
+    private final Path dir;
+    private final String to;
+
+    public FileDropTransport(Path dir, String to) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.to = to;
+    }
+
+    @Override
+    public void send(List<Outbox.Envelope> batch) throws IOException {
+        for (Outbox.Envelope e : batch) {
+            ContactMessage m = e.message;
+            String text = "From: " + header(m.name) + " <" + header(m.email) + ">\r\n"
+                    + "To: " + to + "\r\n"
+                    + "Subject: " + header(m.subject.isEmpty() ? "(no subject)" : m.subject) + "\r\n"
+                    + "Date: " + Instant.ofEpochMilli(m.createdMillis) + "\r\n"
+                    + "Message-ID: <contact-" + e.id + "@furniture.local>\r\n"
+                    + "Content-Type: text/plain; charset=UTF-8\r\n"
+                    + "\r\n"
+                    + m.body.replace("\r\n", "\n").replace("\n", "\r\n") + "\r\n";
+            Path tmp = dir.resolve("contact-" + e.id + ".eml.tmp");
+            Files.write(tmp, text.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, dir.resolve("contact-" + e.id + ".eml"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    // no line breaks inside a header
+    private static String header(String s) {
+        return s.replace('\r', ' ').replace('\n', ' ');
+    }
+
+    @Override
+    public String toString() {
+        return "file drop " + dir;
+    }
+}
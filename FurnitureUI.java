@@ -1,44 +1,47 @@
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.FileWriter;
-import java.time.LocalDateTime;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 
+@SuppressWarnings("serial")
 public class FurnitureUI extends JFrame {
 
-    private java.util.List<Product> cart = new java.util.ArrayList<>();
-    private JPanel productsSection;
-    private JPanel howItWorksSection;
-
-    // ---------------- Product model ----------------
-    private static class Product {
-        String name;
-        String price;
-        String imgName;
-        public Product(String name, String price, String imgName){
-            this.name = name;
-            this.price = price;
-            this.imgName = imgName;
-        }
-    }
+    private final Cart cart = new Cart();
+    private LazySection productsSection;
+    private LazySection howItWorksSection;
 
-    // ---------------- Styling fields (Session 8 minimal requested) ----------------
-    private final Font uiFont = new Font("Segoe UI", Font.PLAIN, 15);
-    private final Font uiFontBold = new Font("Segoe UI", Font.BOLD, 17);
-    private final Color primaryBlue = new Color(30, 50, 80); // dark blue
-    private final Color primaryBlueHover = new Color(18, 35, 65);
+    // ---------------- Product catalog (catalog.csv), shared by all windows, see Shop ----------------
+    private final Shop shop;
+    private final Catalog catalog;
+    private final SearchIndex searchIndex;
+
+    // ---------------- Styling: fonts, colors and borders come from Theme ----------------
+    private static Theme theme() {
+        return Theme.current();
+    }
 
     public FurnitureUI() {
+        this(Shop.shared());
+    }
+
+    /** A store window on a shop that other windows may share (kiosk mode); the cart is its own. */
+    public FurnitureUI(Shop shop) {
+        this.shop = shop;
+        this.catalog = shop.catalog;
+        this.searchIndex = shop.searchIndex;
         setTitle("Furniture");
         setSize(1200, 1600);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
 
         // Apply global font
-        UIManager.put("Label.font", uiFont);
-        UIManager.put("Button.font", uiFont);
-        UIManager.put("TextField.font", uiFont);
+        UIManager.put("Label.font", theme().body);
+        UIManager.put("Button.font", theme().body);
+        UIManager.put("TextField.font", theme().body);
+
+        // optional web storefront on the same catalog, images and order log
+        String httpPort = System.getProperty("furniture.http.port");
+        if (httpPort != null) startStorefront(Integer.parseInt(httpPort));
 
         // Navbar fixe
         JPanel navbar = buildNavbar();
@@ -49,124 +52,244 @@ public class FurnitureUI extends JFrame {
         scrollPane.getVerticalScrollBar().setUnitIncrement(20);
         scrollPane.setBorder(null);
         add(scrollPane, BorderLayout.CENTER);
+        pageScroll = scrollPane;
+
+        // sections below the hero are built as they come near the viewport
+        scrollPane.getViewport().addChangeListener(e -> materializeNear());
+        // images are loaded in the background: whatever is on screen goes first
+        scrollPane.getViewport().addChangeListener(e -> AsyncImageLoader.shared().reprioritize());
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            public void windowOpened(java.awt.event.WindowEvent e) {
+                AsyncImageLoader.shared().reprioritize();
+            }
+        });
+
+        // EDT monitor overlay
+        getRootPane().registerKeyboardAction(e -> {
+            EdtMonitor monitor = EdtMonitor.installed();
+            if (monitor != null) monitor.showOverlay(this);
+        }, KeyStroke.getKeyStroke("ctrl shift E"), JComponent.WHEN_IN_FOCUSED_WINDOW);
+        // light / dark, every open window restyled in place
+        getRootPane().registerKeyboardAction(e -> Theme.setCurrent(theme() == Theme.DARK ? Theme.LIGHT : Theme.DARK),
+                KeyStroke.getKeyStroke("ctrl shift T"), JComponent.WHEN_IN_FOCUSED_WINDOW);
+        constructorNanos = System.nanoTime() - constructStart;
+    }
+
+    private void startStorefront(int port) {
+        try {
+            shop.startStorefront(port);
+        } catch (java.io.IOException | RuntimeException e) {
+            // RuntimeException: the order journal behind it could not be opened
+            JOptionPane.showMessageDialog(null, "Could not start the web storefront on port " + port + ": " + e.getMessage());
+        }
     }
 
     // -------------------- helper: style a button --------------------
     private void styleButton(JButton btn) {
-        btn.setBackground(primaryBlue);
-        btn.setForeground(Color.WHITE);
+        styleButton(btn, Theme.Role.BUTTON);
+    }
+
+    // colors, font, padding and hover from the theme (one shared HoverController)
+    private void styleButton(JButton btn, Theme.Role role) {
         btn.setFocusPainted(false);
-        btn.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-        btn.setFont(uiFont);
-        btn.setBorder(BorderFactory.createEmptyBorder(8, 18, 8, 18));
         btn.setOpaque(true);
         // Rounded effect with empty border is fine; for true rounded you'd need custom painting.
-        btn.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                btn.setBackground(primaryBlueHover);
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                btn.setBackground(primaryBlue);
-            }
-        });
+        Theme.style(btn, role);
     }
 
     // -------------------- IMAGE LOADER --------------------
-    private ImageIcon loadImage(String fileName, int w, int h) {
-        try {
-            java.net.URL imgURL = getClass().getResource("/images/" + fileName);
-            if (imgURL == null) {
-                // placeholder if image missing
-                BufferedImage bi = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
-                Graphics2D g2 = bi.createGraphics();
-                g2.setPaint(Color.LIGHT_GRAY);
-                g2.fillRect(0,0,w,h);
-                g2.dispose();
-                return new ImageIcon(bi);
-            }
-            ImageIcon icon = new ImageIcon(imgURL);
-            Image scaled = icon.getImage().getScaledInstance(w, h, Image.SCALE_SMOOTH);
-            return new ImageIcon(scaled);
-        } catch (Exception e) {
+    // returns a label showing a placeholder right away; the image is decoded in the
+    // background (AsyncImageLoader) and swapped in on the EDT when ready
+    private JLabel imageLabel(String fileName, int w, int h) {
+        JLabel lbl = new JLabel(placeholder(w, h));
+        AsyncImageLoader.shared().load(lbl, fileName, w, h);
+        return lbl;
+    }
+
+    // one light-gray placeholder per size, shared by all cards
+    private final java.util.Map<Dimension, ImageIcon> placeholders = new java.util.HashMap<>();
+
+    private ImageIcon placeholder(int w, int h) {
+        return placeholders.computeIfAbsent(new Dimension(w, h), d -> {
             BufferedImage bi = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
             Graphics2D g2 = bi.createGraphics();
             g2.setPaint(Color.LIGHT_GRAY);
             g2.fillRect(0,0,w,h);
             g2.dispose();
             return new ImageIcon(bi);
-        }
+        });
     }
 
     // -------------------- MAIN PANEL BUILD --------------------
+    private JScrollPane pageScroll;
+    private final java.util.List<LazySection> lazySections = new java.util.ArrayList<>();
+    private boolean materializing = false;
+
+    // how far outside the viewport a section starts being built
+    private static final int PREFETCH_PX = 400;
+
     private JPanel buildMainPanelWithoutNavbar() {
-        JPanel main = new JPanel();
+        JPanel main = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                if (firstPaintNanos == 0) firstPainted();
+            }
+        };
         main.setLayout(new BoxLayout(main, BoxLayout.Y_AXIS));
-        main.setBackground(Color.WHITE);
+        Theme.style(main, Theme.Role.SECTION); // shows between the sections
+
+        // on commence par le hero section; the others are placeholders with
+        // their approximate height until they come near the viewport
+        productsSection = lazy("products", 930, this::buildProductsSection);
+        howItWorksSection = lazy("how-it-works", 440, this::buildHowItWorksSection);
 
-        // on commence par le hero section
         main.add(buildHeroSection());
         main.add(Box.createVerticalStrut(20));
-        main.add(buildInspirationSection());
+        main.add(lazy("inspiration", 710, this::buildInspirationSection));
         main.add(Box.createVerticalStrut(20));
-        main.add(buildBrowseRangeSection());
+        main.add(lazy("browse-range", 400, this::buildBrowseRangeSection));
         main.add(Box.createVerticalStrut(20));
-        main.add(buildProductsSection());
+        main.add(productsSection);
         main.add(Box.createVerticalStrut(20));
-        main.add(buildHowItWorksSection());
+        main.add(howItWorksSection);
         main.add(Box.createVerticalStrut(20));
-        main.add(buildMailingListSection());
+        main.add(lazy("mailing-list", 250, this::buildMailingListSection));
         main.add(Box.createVerticalStrut(20));
-        main.add(buildFooterSection());
+        main.add(lazy("footer", 150, this::buildFooterSection));
 
         return main;
     }
 
+    private LazySection lazy(String name, int reservedHeight, java.util.function.Supplier<JPanel> builder) {
+        LazySection s = new LazySection(name, reservedHeight, builder);
+        lazySections.add(s);
+        return s;
+    }
+
+    // builds every section within PREFETCH_PX of what the viewport shows
+    private void materializeNear() {
+        if (materializing || pageScroll == null) return;
+        materializing = true;
+        try {
+            JViewport viewport = pageScroll.getViewport();
+            Component view = viewport.getView();
+            if (!view.isValid()) view.doLayout(); // called from the viewport's own layout: place the sections first
+            boolean built;
+            do {
+                built = false;
+                Rectangle shown = viewport.getViewRect();
+                for (LazySection s : lazySections) {
+                    if (s.isBuilt()) continue;
+                    if (s.getY() + s.getHeight() >= shown.y - PREFETCH_PX && s.getY() <= shown.y + shown.height + PREFETCH_PX) {
+                        materialize(s);
+                        built = true;
+                        break; // positions below it changed: look again
+                    }
+                }
+            } while (built);
+        } finally {
+            materializing = false;
+        }
+    }
+
+    // builds the section and lays the page out again; if the section is above
+    // what is shown, the view moves by its change in height so nothing visible jumps
+    private void materialize(LazySection s) {
+        if (s.isBuilt()) return;
+        JViewport viewport = pageScroll.getViewport();
+        Point pos = viewport.getViewPosition();
+        boolean above = s.getY() + s.getHeight() <= pos.y;
+        int before = s.getHeight();
+        boolean wasMaterializing = materializing;
+        materializing = true;
+        try {
+            s.materialize();
+            pageScroll.validate();
+            int delta = s.getHeight() - before;
+            if (above && delta != 0) viewport.setViewPosition(new Point(pos.x, Math.max(0, pos.y + delta)));
+        } finally {
+            materializing = wasMaterializing;
+        }
+    }
+
+    // navbar links and Shop Now: build the target so its position is real, then jump;
+    // sections built above it afterwards keep it in place (see materialize)
+    private void scrollToSection(LazySection s) {
+        materialize(s);
+        scrollTo(s.getY());
+    }
+
+    // -------------------- startup timing --------------------
+    private final long constructStart = System.nanoTime();
+    private long constructorNanos;
+    private long firstPaintNanos;
+    private long firstPaintMillis; // wall clock, for the time since JVM start
+
+    // -Dfurniture.debug.startup=true prints the startup line once the page is painted
+    private void firstPainted() {
+        firstPaintNanos = System.nanoTime() - constructStart;
+        firstPaintMillis = System.currentTimeMillis();
+        if (Boolean.getBoolean("furniture.debug.startup")) {
+            SwingUtilities.invokeLater(() -> System.out.println("[startup] " + startupStatsLine()));
+        }
+    }
+
+    /** Constructor and first-paint times of this window, and how much of the page was built for them. */
+    public String startupStatsLine() {
+        int built = 0;
+        long buildNanos = 0;
+        for (LazySection s : lazySections) {
+            if (!s.isBuilt()) continue;
+            built++;
+            buildNanos += s.getBuildNanos();
+        }
+        String sinceJvm = firstPaintMillis == 0 ? ""
+                : String.format(" (%d ms after JVM start)", firstPaintMillis - java.lang.management.ManagementFactory.getRuntimeMXBean().getStartTime());
+        return String.format("constructor %.1f ms, first paint %.1f ms after constructor start%s, %d/%d lazy sections built in %.1f ms",
+                constructorNanos / 1e6, firstPaintNanos / 1e6, sinceJvm, built, lazySections.size(), buildNanos / 1e6);
+    }
+
     // -------------------- NAVBAR --------------------
     private JPanel buildNavbar() {
         JPanel navbar = new JPanel(new BorderLayout());
         navbar.setPreferredSize(new Dimension(1200, 70));
-        navbar.setBackground(new Color(255, 255, 255, 200));
+        Theme.style(navbar, Theme.Role.NAVBAR);
         navbar.setBorder(new EmptyBorder(10, 40, 10, 40));
 
-        JLabel brand = new JLabel("Furniture");
-        brand.setFont(uiFontBold);
-        brand.setForeground(new Color(30, 50, 80));
+        JLabel brand = Theme.style(new JLabel("Furniture"), Theme.Role.BRAND);
 
         JPanel menu = new JPanel(new FlowLayout(FlowLayout.RIGHT, 30, 0));
         menu.setOpaque(false);
-        String[] items = {"Home",  "Products", "Services","Contact"};
-        for (String item : items) {
-            JLabel lbl = new JLabel(item);
-            lbl.setFont(uiFont);
-            lbl.setForeground(new Color(30, 50, 80));
-            lbl.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-
-            // Improved listener: use scrollTo when possible and call contact form
-            lbl.addMouseListener(new java.awt.event.MouseAdapter() {
-                public void mouseClicked(java.awt.event.MouseEvent e) {
-                    switch(item){
-                        case "Home":
-                            scrollTo(0);
-                            break;
-                        case "Products":
-                            if (productsSection != null) scrollTo(productsSection.getY());
-                            break;
-                        case "Services":
-                            if (howItWorksSection != null) scrollTo(howItWorksSection.getY());
-                            break;
-                        case "Contact":
-                            openContactForm();
-                            break;
-                    }
-                }
-                public void mouseEntered(java.awt.event.MouseEvent e) {
-                    lbl.setForeground(primaryBlueHover);
-                }
-                public void mouseExited(java.awt.event.MouseEvent e) {
-                    lbl.setForeground(new Color(30, 50, 80));
+
+        SearchBox search = new SearchBox(searchIndex, this::showProduct);
+        search.setFont(theme().body);
+        menu.add(search);
+
+        // one click listener for all the links: use scrollTo when possible and call contact form (hover: Theme)
+        java.awt.event.MouseAdapter navClicks = new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                switch (((JLabel) e.getComponent()).getText()) {
+                    case "Home":
+                        scrollTo(0);
+                        break;
+                    case "Products":
+                        scrollToSection(productsSection);
+                        break;
+                    case "Services":
+                        scrollToSection(howItWorksSection);
+                        break;
+                    case "Contact":
+                        openContactForm();
+                        break;
                 }
-            });
+            }
+        };
 
+        String[] items = {"Home",  "Products", "Services","Contact"};
+        for (String item : items) {
+            JLabel lbl = Theme.style(new JLabel(item), Theme.Role.NAV_LINK);
+            lbl.addMouseListener(navClicks);
             menu.add(lbl);
         }
 
@@ -177,6 +300,12 @@ public class FurnitureUI extends JFrame {
 
         menu.add(cartBtn);
 
+        JButton ordersBtn = new JButton("Orders");
+        styleButton(ordersBtn);
+        ordersBtn.setFocusPainted(false);
+        ordersBtn.addActionListener(e -> openOrderHistory());
+        menu.add(ordersBtn);
+
         navbar.add(brand, BorderLayout.WEST);
         navbar.add(menu, BorderLayout.EAST);
 
@@ -184,56 +313,31 @@ public class FurnitureUI extends JFrame {
     }
 
     private void scrollTo(int y){
-        // find the scroll pane in the content and set scrollbar value
-        for (Component c : getContentPane().getComponents()) {
-            if (c instanceof JScrollPane) {
-                JScrollBar bar = ((JScrollPane)c).getVerticalScrollBar();
-                bar.setValue(y);
-                return;
-            }
-        }
-        // fallback (old approach)
-        try {
-            JScrollPane sp = (JScrollPane)getContentPane().getComponent(0);
-            sp.getVerticalScrollBar().setValue(y);
-        } catch (Exception ignored) {}
+        pageScroll.getVerticalScrollBar().setValue(y);
     }
 
     // -------------------- HERO --------------------
     private JPanel buildHeroSection() {
-        JPanel hero = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                g.drawImage(loadImage("hero.jpg", 1200, 500).getImage(), 0, 0, getWidth(), getHeight(), this);
-            }
-        };
+        // image decoded once, rescaled only when the panel is resized
+        HeroPanel hero = new HeroPanel("hero.jpg");
         hero.setPreferredSize(new Dimension(1200, 500));
         hero.setLayout(new GridBagLayout());
 
         JPanel overlay = new JPanel();
-        overlay.setBackground(new Color(0, 0, 0, 120));
+        Theme.style(overlay, Theme.Role.HERO_OVERLAY);
         overlay.setLayout(new BoxLayout(overlay, BoxLayout.Y_AXIS));
         overlay.setBorder(new EmptyBorder(50, 50, 50, 50));
 
-        JLabel title = new JLabel("Modern Furniture for Your Home");
-        title.setFont(new Font("SansSerif", Font.BOLD, 40));
-        title.setForeground(Color.WHITE);
+        JLabel title = Theme.style(new JLabel("Modern Furniture for Your Home"), Theme.Role.HERO_TITLE);
         title.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        JLabel subtitle = new JLabel("Discover unique designs and comfortable styles");
-        subtitle.setFont(new Font("SansSerif", Font.PLAIN, 20));
-        subtitle.setForeground(Color.WHITE);
+        JLabel subtitle = Theme.style(new JLabel("Discover unique designs and comfortable styles"), Theme.Role.HERO_SUBTITLE);
         subtitle.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         JButton shopBtn = new JButton("Shop Now");
-        styleButton(shopBtn);
-        shopBtn.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        styleButton(shopBtn, Theme.Role.BUTTON_LARGE);
         shopBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
-        shopBtn.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
-        shopBtn.addActionListener(e -> {
-            if (productsSection != null) scrollTo(productsSection.getY());
-        });
+        shopBtn.addActionListener(e -> scrollToSection(productsSection));
 
         overlay.add(title);
         overlay.add(Box.createVerticalStrut(15));
@@ -250,14 +354,13 @@ public class FurnitureUI extends JFrame {
         JPanel section = new JPanel();
         section.setLayout(new BoxLayout(section, BoxLayout.Y_AXIS));
         section.setBorder(new EmptyBorder(60, 40, 60, 40));
-        section.setBackground(Color.WHITE);
+        Theme.style(section, Theme.Role.SECTION);
 
-        JLabel title = new JLabel("Inspiration Collection", SwingConstants.CENTER);
-        title.setFont(new Font("SansSerif", Font.BOLD, 32));
+        JLabel title = Theme.style(new JLabel("Inspiration Collection", SwingConstants.CENTER), Theme.Role.SECTION_TITLE);
         title.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         JPanel grid = new JPanel(new GridLayout(2, 3, 30, 30));
-        grid.setBackground(Color.WHITE);
+        Theme.style(grid, Theme.Role.SECTION);
         grid.setBorder(new EmptyBorder(40, 0, 0, 0));
 
         grid.add(inspirationCard("img1.jpg", "Scandinavian Living Room"));
@@ -276,29 +379,17 @@ public class FurnitureUI extends JFrame {
     private JPanel inspirationCard(String imgName, String caption) {
         JPanel card = new JPanel();
         card.setLayout(new BorderLayout());
-        card.setBackground(Color.WHITE);
-        card.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220), 1));
-        card.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        Theme.style(card, Theme.Role.CARD);
 
-        JLabel img = new JLabel(loadImage(imgName, 350, 200));
+        JLabel img = imageLabel(imgName, 350, 200);
         img.setHorizontalAlignment(SwingConstants.CENTER);
 
-        JLabel lbl = new JLabel(caption, SwingConstants.CENTER);
-        lbl.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        JLabel lbl = Theme.style(new JLabel(caption, SwingConstants.CENTER), Theme.Role.CARD_TEXT);
         lbl.setBorder(new EmptyBorder(10, 5, 5, 5));
 
         card.add(img, BorderLayout.CENTER);
         card.add(lbl, BorderLayout.SOUTH);
 
-        card.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                card.setBorder(BorderFactory.createLineBorder(new Color(30, 50, 80), 2));
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                card.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220), 1));
-            }
-        });
-
         return card;
     }
 
@@ -307,20 +398,19 @@ public class FurnitureUI extends JFrame {
         JPanel section = new JPanel();
         section.setLayout(new BoxLayout(section, BoxLayout.Y_AXIS));
         section.setBorder(new EmptyBorder(60, 40, 60, 40));
-        section.setBackground(new Color(245, 245, 245));
+        Theme.style(section, Theme.Role.SECTION_ALT);
 
-        JLabel title = new JLabel("Browse Our Range", SwingConstants.CENTER);
-        title.setFont(new Font("SansSerif", Font.BOLD, 32));
+        JLabel title = Theme.style(new JLabel("Browse Our Range", SwingConstants.CENTER), Theme.Role.SECTION_TITLE);
         title.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        JPanel grid = new JPanel(new GridLayout(1, 4, 30, 0));
-        grid.setBackground(new Color(245, 245, 245));
+        java.util.Map<String, String> categories = catalog.categories();
+        JPanel grid = new JPanel(new GridLayout(1, Math.max(1, categories.size()), 30, 0));
+        Theme.style(grid, Theme.Role.SECTION_ALT);
         grid.setBorder(new EmptyBorder(40, 0, 0, 0));
 
-        grid.add(rangeCard("armchair.jpg", "Chairs"));
-        grid.add(rangeCard("nightstand.jpg", "Tables"));
-        grid.add(rangeCard("lamp.jpg", "Lamps"));
-        grid.add(rangeCard("bedroom.jpg", "Bedroom"));
+        for (java.util.Map.Entry<String, String> c : categories.entrySet()) {
+            grid.add(rangeCard(c.getValue(), c.getKey()));
+        }
 
         section.add(title);
         section.add(grid);
@@ -331,107 +421,224 @@ public class FurnitureUI extends JFrame {
     private JPanel rangeCard(String imgName, String category) {
         JPanel card = new JPanel();
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
-        card.setBackground(Color.WHITE);
-        card.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200), 1));
-        card.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        Theme.style(card, Theme.Role.RANGE_CARD);
 
-        JLabel img = new JLabel(loadImage(imgName, 200, 150));
+        JLabel img = imageLabel(imgName, 200, 150);
         img.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        JLabel lbl = new JLabel(category, SwingConstants.CENTER);
-        lbl.setFont(new Font("SansSerif", Font.BOLD, 16));
+        JLabel lbl = Theme.style(new JLabel(category, SwingConstants.CENTER), Theme.Role.CARD_TITLE);
         lbl.setAlignmentX(Component.CENTER_ALIGNMENT);
         lbl.setBorder(new EmptyBorder(10, 0, 10, 0));
 
         card.add(img);
         card.add(lbl);
 
-        card.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                card.setBorder(BorderFactory.createLineBorder(new Color(30, 50, 80), 2));
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                card.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200), 1));
-            }
-        });
+        card.putClientProperty(RANGE_CATEGORY, category);
+        card.addMouseListener(rangeClicks);
 
         return card;
     }
 
+    // one listener for all range cards; each card carries its category
+    private static final String RANGE_CATEGORY = "furniture.range.category";
+    private final java.awt.event.MouseAdapter rangeClicks = new java.awt.event.MouseAdapter() {
+        public void mouseClicked(java.awt.event.MouseEvent evt) {
+            // acts as a category facet on the products section (built first: it fills the combo)
+            scrollToSection(productsSection);
+            categoryFilter.setSelectedItem(((JComponent) evt.getComponent()).getClientProperty(RANGE_CATEGORY));
+        }
+    };
+
+    // ---------------- product filters (category / price / text) ----------------
+    private static final String ANY_CATEGORY = "All categories";
+    private static final String[] PRICE_LABELS = {"Any price", "Under 10000 DA", "10000 - 50000 DA", "50000 - 100000 DA", "Over 100000 DA"};
+    private static final long[][] PRICE_RANGES = {{-1, -1}, {-1, 999_999}, {1_000_000, 4_999_999}, {5_000_000, 9_999_999}, {10_000_000, -1}};
+
+    private FacetIndex facets;
+    private final JComboBox<String> categoryFilter = new JComboBox<>();
+    private final JComboBox<String> priceFilter = new JComboBox<>(PRICE_LABELS);
+    private final JTextField textFilter = new JTextField(12);
+    private final JLabel filterCount = Theme.style(new JLabel(" "), Theme.Role.FORM_LABEL);
+    private JPanel productsArea;         // CardLayout: "featured" boxes or "results" grid
+    private ProductGrid filteredGrid;
+
+    private JPanel buildFilterBar() {
+        facets = new FacetIndex(catalog, searchIndex);
+
+        JPanel bar = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        Theme.style(bar, Theme.Role.SECTION);
+        bar.setBorder(new EmptyBorder(25, 0, 0, 0));
+
+        categoryFilter.addItem(ANY_CATEGORY);
+        for (String c : catalog.categories().keySet()) categoryFilter.addItem(c);
+        categoryFilter.addActionListener(e -> applyFilters());
+        priceFilter.addActionListener(e -> applyFilters());
+
+        Timer debounce = new Timer(200, e -> applyFilters());
+        debounce.setRepeats(false);
+        textFilter.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { debounce.restart(); }
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { debounce.restart(); }
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { debounce.restart(); }
+        });
+
+        JButton clear = new JButton("Clear");
+        styleButton(clear);
+        clear.addActionListener(e -> {
+            textFilter.setText("");
+            priceFilter.setSelectedIndex(0);
+            categoryFilter.setSelectedIndex(0);
+        });
+
+        bar.add(categoryFilter);
+        bar.add(priceFilter);
+        bar.add(Theme.style(new JLabel("Filter:"), Theme.Role.FORM_LABEL));
+        bar.add(textFilter);
+        bar.add(clear);
+        bar.add(filterCount);
+        return bar;
+    }
+
+    // only the products area is touched: the rest of the page is not rebuilt
+    private void applyFilters() {
+        if (productsArea == null) return;
+        String category = (String) categoryFilter.getSelectedItem();
+        if (ANY_CATEGORY.equals(category)) category = null;
+        long[] range = PRICE_RANGES[Math.max(0, priceFilter.getSelectedIndex())];
+        String text = textFilter.getText().trim();
+
+        CardLayout cards = (CardLayout) productsArea.getLayout();
+        if (category == null && range[0] < 0 && range[1] < 0 && text.isEmpty()) {
+            filterCount.setText(" ");
+            cards.show(productsArea, "featured");
+            return;
+        }
+        java.util.List<Product> found = facets.filter(category, range[0], range[1], text.isEmpty() ? null : text);
+        filteredGrid.setProducts(found);
+        filterCount.setText(found.size() + " product(s)");
+        cards.show(productsArea, "results");
+    }
+
     //  OUR PRODUCTS
     private JPanel buildProductsSection() {
         JPanel section = new JPanel();
         section.setLayout(new BoxLayout(section, BoxLayout.Y_AXIS));
         section.setBorder(new EmptyBorder(60, 40, 60, 40));
-        section.setBackground(Color.WHITE);
+        Theme.style(section, Theme.Role.SECTION);
 
-        productsSection = section; // pour scroll et Shop Now
-
-        JLabel title = new JLabel("Our Products", SwingConstants.CENTER);
-        title.setFont(new Font("SansSerif", Font.BOLD, 32));
+        JLabel title = Theme.style(new JLabel("Our Products", SwingConstants.CENTER), Theme.Role.SECTION_TITLE);
         title.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         JPanel grid = new JPanel(new GridLayout(2, 3, 30, 30));
-        grid.setBackground(Color.WHITE);
+        Theme.style(grid, Theme.Role.SECTION);
         grid.setBorder(new EmptyBorder(40, 0, 0, 0));
 
-        grid.add(styledProductBox("armchair.jpg", "Bouclé Wooden Armchair", "15000 DA"));
-        grid.add(styledProductBox("lamp.jpg", "Woven Table Lamp", "4000 DA"));
-        grid.add(styledProductBox("bedroom2.jpg", "Minimalist Bedroom", "65000 DA"));
-        grid.add(styledProductBox("mirror.jpg", "LED Curve Mirror", "9000 DA"));
-        grid.add(styledProductBox("lounge.jpg", "Scandinavian Lounge Chair", "55000 DA"));
-        grid.add(styledProductBox("bedroom.jpg", "Cozy Bedroom Set", "320000 DA"));
+        // home page shows the first six catalog entries
+        java.util.List<Product> all = catalog.all();
+        for (int i = 0; i < Math.min(6, all.size()); i++) {
+            grid.add(styledProductBox(all.get(i)));
+        }
 
         JButton viewAll = new JButton("VIEW ALL");
-        styleButton(viewAll);
+        styleButton(viewAll, Theme.Role.BUTTON_WIDE);
         viewAll.setAlignmentX(Component.CENTER_ALIGNMENT);
-        viewAll.setFont(new Font("Segoe UI", Font.BOLD, 14));
-        viewAll.setFocusPainted(false);
-        viewAll.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        viewAll.addActionListener(e -> openAllProductsWindow());
+
+        // filtered results reuse one virtualized grid, swapped in place of the boxes
+        filteredGrid = new ProductGrid(java.util.Collections.emptyList(), p -> {
+            cart.add(p);
+            JOptionPane.showMessageDialog(this, p.name + " added to cart!");
+        });
+        JScrollPane results = new JScrollPane(filteredGrid);
+        results.setBorder(new EmptyBorder(40, 0, 0, 0));
+        results.getVerticalScrollBar().setUnitIncrement(20);
+        results.setPreferredSize(new Dimension(1100, 2 * ProductGrid.CELL_H + 60));
+
+        productsArea = new JPanel(new CardLayout());
+        Theme.style(productsArea, Theme.Role.SECTION);
+        productsArea.add(grid, "featured");
+        productsArea.add(results, "results");
 
         section.add(title);
-        section.add(grid);
+        section.add(buildFilterBar());
+        section.add(productsArea);
         section.add(Box.createVerticalStrut(30));
         section.add(viewAll);
 
         return section;
     }
 
-    private JPanel styledProductBox(String imgName, String name, String price) {
-        JPanel box = new JPanel();
-        box.setLayout(new BoxLayout(box, BoxLayout.Y_AXIS));
-        box.setBackground(Color.WHITE);
-        box.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220), 1));
-        box.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+    // VIEW ALL: the whole catalog in a virtualized grid (only visible cells are painted)
+    private JFrame allProductsFrame;
+    private ProductGrid allProductsGrid;
 
-        box.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                box.setBorder(BorderFactory.createLineBorder(new Color(30, 50, 80), 2));
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                box.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220), 1));
+    // search result picked in the navbar: show it in the full grid
+    private void showProduct(Product p) {
+        openAllProductsWindow();
+        allProductsGrid.setSelectedValue(p, true);
+    }
+
+    private void openAllProductsWindow() {
+        if (allProductsFrame != null) {
+            allProductsFrame.setVisible(true);
+            allProductsFrame.toFront();
+            return;
+        }
+        allProductsFrame = new JFrame("All Products (" + catalog.size() + ")");
+        allProductsFrame.setSize(1100, 800);
+        allProductsFrame.setLocationRelativeTo(this);
+        // closed = gone: the grid, its thumbnails and listeners go with the frame
+        allProductsFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        ProductGrid grid = new ProductGrid(catalog.all(), p -> {
+            cart.add(p);
+            JOptionPane.showMessageDialog(allProductsFrame, p.name + " added to cart!");
+        });
+        allProductsGrid = grid;
+        JScrollPane scroll = new JScrollPane(grid);
+        scroll.setBorder(null);
+        scroll.getVerticalScrollBar().setUnitIncrement(20);
+
+        // paint-time stats while scrolling
+        JLabel status = new JLabel(" ");
+        Theme.style(status, Theme.Role.STATUS);
+        status.setBorder(new EmptyBorder(4, 10, 4, 10));
+        Timer statsTimer = new Timer(500, e -> status.setText(grid.frameStats()));
+        statsTimer.start();
+        allProductsFrame.addWindowListener(new java.awt.event.WindowAdapter() {
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                statsTimer.stop();
+                allProductsFrame = null;
+                allProductsGrid = null;
             }
         });
 
-        JLabel img = new JLabel(loadImage(imgName, 220, 180));
+        allProductsFrame.add(scroll, BorderLayout.CENTER);
+        allProductsFrame.add(status, BorderLayout.SOUTH);
+        allProductsFrame.setVisible(true);
+    }
+
+    private JPanel styledProductBox(Product p) {
+        JPanel box = new JPanel();
+        box.setLayout(new BoxLayout(box, BoxLayout.Y_AXIS));
+        Theme.style(box, Theme.Role.CARD);
+
+        JLabel img = imageLabel(p.imgName, 220, 180);
         img.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        JLabel lblName = new JLabel(name, SwingConstants.CENTER);
-        lblName.setFont(new Font("SansSerif", Font.BOLD, 16));
+        JLabel lblName = Theme.style(new JLabel(p.name, SwingConstants.CENTER), Theme.Role.CARD_TITLE);
         lblName.setAlignmentX(Component.CENTER_ALIGNMENT);
         lblName.setBorder(new EmptyBorder(10, 0, 5, 0));
 
-        JLabel lblPrice = new JLabel(price, SwingConstants.CENTER);
-        lblPrice.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        JLabel lblPrice = Theme.style(new JLabel(p.displayPrice(), SwingConstants.CENTER), Theme.Role.PRICE);
         lblPrice.setAlignmentX(Component.CENTER_ALIGNMENT);
-        lblPrice.setForeground(new Color(30, 50, 80));
 
         JButton addBtn = new JButton("Add to Cart");
         styleButton(addBtn);
         addBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
         addBtn.addActionListener(ev -> {
-            cart.add(new Product(name, price, imgName));
-            JOptionPane.showMessageDialog(this, name + " added to cart!");
+            cart.add(p);
+            JOptionPane.showMessageDialog(this, p.name + " added to cart!");
         });
 
         box.add(img);
@@ -448,16 +655,13 @@ public class FurnitureUI extends JFrame {
         JPanel section = new JPanel();
         section.setLayout(new BoxLayout(section, BoxLayout.Y_AXIS));
         section.setBorder(new EmptyBorder(60, 40, 60, 40));
-        section.setBackground(Color.WHITE);
+        Theme.style(section, Theme.Role.SECTION);
 
-        howItWorksSection = section; // pour scroll
-
-        JLabel title = new JLabel("How It Works", SwingConstants.CENTER);
-        title.setFont(new Font("SansSerif", Font.BOLD, 32));
+        JLabel title = Theme.style(new JLabel("How It Works", SwingConstants.CENTER), Theme.Role.SECTION_TITLE);
         title.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         JPanel grid = new JPanel(new GridLayout(1, 3, 30, 20));
-        grid.setBackground(Color.WHITE);
+        Theme.style(grid, Theme.Role.SECTION);
         grid.setBorder(new EmptyBorder(40, 0, 0, 0));
 
         grid.add(workStepCard("purchase.jpg", "1. Purchase Securely", "Shop with confidence through our secure payment system."));
@@ -473,29 +677,16 @@ public class FurnitureUI extends JFrame {
     private JPanel workStepCard(String imgName, String stepTitle, String desc) {
         JPanel box = new JPanel();
         box.setLayout(new BoxLayout(box, BoxLayout.Y_AXIS));
-        box.setBackground(Color.WHITE);
-        box.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220), 1));
-        box.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-
-        box.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                box.setBorder(BorderFactory.createLineBorder(new Color(30, 50, 80), 2));
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                box.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220), 1));
-            }
-        });
+        Theme.style(box, Theme.Role.CARD);
 
-        JLabel img = new JLabel(loadImage(imgName, 180, 150));
+        JLabel img = imageLabel(imgName, 180, 150);
         img.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        JLabel lblTitle = new JLabel(stepTitle, SwingConstants.CENTER);
-        lblTitle.setFont(new Font("SansSerif", Font.BOLD, 16));
+        JLabel lblTitle = Theme.style(new JLabel(stepTitle, SwingConstants.CENTER), Theme.Role.CARD_TITLE);
         lblTitle.setAlignmentX(Component.CENTER_ALIGNMENT);
         lblTitle.setBorder(new EmptyBorder(10, 0, 5, 0));
 
-        JLabel lblDesc = new JLabel("<html><center>" + desc + "</center></html>");
-        lblDesc.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        JLabel lblDesc = Theme.style(new JLabel("<html><center>" + desc + "</center></html>"), Theme.Role.CARD_TEXT);
         lblDesc.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         box.add(img);
@@ -509,20 +700,19 @@ public class FurnitureUI extends JFrame {
         JPanel section = new JPanel();
         section.setLayout(new BoxLayout(section, BoxLayout.Y_AXIS));
         section.setBorder(new EmptyBorder(60, 40, 60, 40));
-        section.setBackground(new Color(237, 244, 252));
+        Theme.style(section, Theme.Role.SECTION_ACCENT);
 
-        JLabel title = new JLabel("Join Our Mailing List", SwingConstants.CENTER);
-        title.setFont(new Font("SansSerif", Font.BOLD, 28));
+        JLabel title = Theme.style(new JLabel("Join Our Mailing List", SwingConstants.CENTER), Theme.Role.MAILING_TITLE);
         title.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        JLabel sub = new JLabel("Sign up to receive inspiration, product updates, and special offers.", SwingConstants.CENTER);
-        sub.setFont(new Font("SansSerif", Font.PLAIN, 16));
+        JLabel sub = Theme.style(new JLabel("Sign up to receive inspiration, product updates, and special offers.",
+                SwingConstants.CENTER), Theme.Role.LEAD);
         sub.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         JPanel inputPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
-        inputPanel.setBackground(new Color(237, 244, 252));
+        Theme.style(inputPanel, Theme.Role.SECTION_ACCENT);
         JTextField emailField = new JTextField(30);
-        emailField.setFont(uiFont);
+        emailField.setFont(theme().body);
         JButton submitBtn = new JButton("Submit");
         styleButton(submitBtn);
 
@@ -531,12 +721,27 @@ public class FurnitureUI extends JFrame {
 
         submitBtn.addActionListener(e -> {
             String em = emailField.getText().trim();
-            if (em.isEmpty() || !em.matches("^.+@.+\\..+$")) {
+            if (!EmailAddress.isValid(em)) {
                 JOptionPane.showMessageDialog(this, "Please enter a valid email.");
-            } else {
-                JOptionPane.showMessageDialog(this, "Thanks for subscribing!");
-                emailField.setText("");
+                return;
             }
+            // stored (and the store opened, on first use) off the EDT
+            submitBtn.setEnabled(false);
+            java.util.concurrent.CompletableFuture<SubscriberStore.Result> saved =
+                    SubscriberStore.sharedAsync().thenCompose(store -> store.subscribeAsync(em));
+            saved.whenComplete((result, err) -> SwingUtilities.invokeLater(() -> {
+                submitBtn.setEnabled(true);
+                if (err != null) {
+                    Throwable cause = err instanceof java.util.concurrent.CompletionException ? err.getCause() : err;
+                    JOptionPane.showMessageDialog(this, "Could not save your subscription: " + cause.getMessage());
+                } else if (result == SubscriberStore.Result.DUPLICATE) {
+                    JOptionPane.showMessageDialog(this, "You are already subscribed.");
+                    emailField.setText("");
+                } else {
+                    JOptionPane.showMessageDialog(this, "Thanks for subscribing!");
+                    emailField.setText("");
+                }
+            }));
         });
 
         section.add(title);
@@ -553,15 +758,13 @@ public class FurnitureUI extends JFrame {
         JPanel footer = new JPanel();
         footer.setLayout(new BoxLayout(footer, BoxLayout.Y_AXIS));
         footer.setBorder(new EmptyBorder(40, 40, 40, 40));
-        footer.setBackground(new Color(30, 50, 80));
+        Theme.style(footer, Theme.Role.FOOTER);
 
-        JLabel follow = new JLabel("Follow Us", SwingConstants.CENTER);
-        follow.setFont(new Font("SansSerif", Font.BOLD, 18));
-        follow.setForeground(Color.WHITE);
+        JLabel follow = Theme.style(new JLabel("Follow Us", SwingConstants.CENTER), Theme.Role.FOOTER_TITLE);
         follow.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         JPanel icons = new JPanel(new FlowLayout());
-        icons.setBackground(new Color(30, 50, 80));
+        Theme.style(icons, Theme.Role.FOOTER);
         icons.add(new JLabel("📘"));
         icons.add(new JLabel("📸"));
         icons.add(new JLabel("🐦"));
@@ -582,10 +785,9 @@ public class FurnitureUI extends JFrame {
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         panel.setBorder(new EmptyBorder(18, 18, 18, 18));
-        panel.setBackground(Color.WHITE);
+        Theme.style(panel, Theme.Role.DIALOG);
 
-        JLabel title = new JLabel("📨 Contact Us");
-        title.setFont(uiFontBold);
+        JLabel title = Theme.style(new JLabel("📨 Contact Us"), Theme.Role.DIALOG_TITLE);
         title.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         JTextField name = new JTextField();
@@ -603,19 +805,19 @@ public class FurnitureUI extends JFrame {
         panel.add(title);
         panel.add(Box.createVerticalStrut(12));
 
-        panel.add(new JLabel("Name:"));
+        panel.add(Theme.style(new JLabel("Name:"), Theme.Role.FORM_LABEL));
         panel.add(name);
         panel.add(Box.createVerticalStrut(8));
 
-        panel.add(new JLabel("Email:"));
+        panel.add(Theme.style(new JLabel("Email:"), Theme.Role.FORM_LABEL));
         panel.add(email);
         panel.add(Box.createVerticalStrut(8));
 
-        panel.add(new JLabel("Subject:"));
+        panel.add(Theme.style(new JLabel("Subject:"), Theme.Role.FORM_LABEL));
         panel.add(subject);
         panel.add(Box.createVerticalStrut(8));
 
-        panel.add(new JLabel("Message:"));
+        panel.add(Theme.style(new JLabel("Message:"), Theme.Role.FORM_LABEL));
         panel.add(new JScrollPane(message));
         panel.add(Box.createVerticalStrut(12));
 
@@ -629,10 +831,13 @@ public class FurnitureUI extends JFrame {
                 JOptionPane.showMessageDialog(contact, "Please fill in name, email and message.");
                 return;
             }
-            if (!email.getText().matches("^.+@.+\\..+$")) {
+            if (!EmailAddress.isValid(email.getText().trim())) {
                 JOptionPane.showMessageDialog(contact, "Please enter a valid email address.");
                 return;
             }
+            // only queued here; the outbox thread spools and sends it
+            Outbox.shared().enqueue(new ContactMessage(name.getText().trim(), email.getText().trim(),
+                    subject.getText().trim(), message.getText()));
             JOptionPane.showMessageDialog(contact, "Thank you, " + name.getText() + "!");
             contact.dispose();
         });
@@ -644,82 +849,40 @@ public class FurnitureUI extends JFrame {
     }
 
     //CART 
-    private void openCartWindow() {
-        JFrame cartFrame = new JFrame("Your Cart");
-        cartFrame.setSize(450, 550);
-        cartFrame.setLocationRelativeTo(this);
+    // one window per store window, updated in place from cart events
+    private CartWindow cartWindow;
 
-        JPanel panel = new JPanel();
-        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
-        panel.setBorder(new EmptyBorder(10, 10, 10, 10));
-        panel.setBackground(Color.WHITE);
-
-        int total = 0;
-        for (int i = 0; i < cart.size(); i++) {
-            Product p = cart.get(i);
-
-            JPanel itemPanel = new JPanel(new BorderLayout());
-            itemPanel.setBackground(Color.decode("#F5F5F5"));
-            itemPanel.setBorder(BorderFactory.createLineBorder(Color.decode("#CCCCCC"), 1));
-            itemPanel.setMaximumSize(new Dimension(400, 80));
-            itemPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
-
-            JLabel nameLabel = new JLabel(p.name + " - " + p.price);
-            nameLabel.setFont(uiFont);
-            nameLabel.setBorder(new EmptyBorder(5, 10, 5, 10));
-
-            JButton removeBtn = new JButton("Remove");
-            styleButton(removeBtn);
-            removeBtn.setBackground(new Color(200, 60, 60)); // red-ish remove
-            removeBtn.addActionListener(e -> {
-                cart.remove(p);
-                cartFrame.dispose();
-                openCartWindow();
-            });
-
-            itemPanel.add(nameLabel, BorderLayout.CENTER);
-            itemPanel.add(removeBtn, BorderLayout.EAST);
-
-            panel.add(itemPanel);
-            panel.add(Box.createVerticalStrut(10));
-
-            String priceNum = p.price.replaceAll("[^0-9]", "");
-            total += Integer.parseInt(priceNum);
+    private void openCartWindow() {
+        if (cartWindow == null) {
+            cartWindow = new CartWindow(cart, this, () -> openCheckoutForm(cart.getTotal(), cartWindow));
         }
+        cartWindow.open();
+    }
 
-        JLabel totalLbl = new JLabel("Total: " + total + " DA");
-        totalLbl.setFont(new Font("Segoe UI", Font.BOLD, 18));
-        totalLbl.setForeground(new Color(30, 50, 80));
-        totalLbl.setAlignmentX(Component.CENTER_ALIGNMENT);
-        totalLbl.setBorder(new EmptyBorder(10,0,10,0));
-
-        panel.add(totalLbl);
-
-        // Checkout button 
-        JButton checkoutBtn = new JButton("Checkout");
-        styleButton(checkoutBtn);
+    // ORDER HISTORY
+    // paged view of orders.txt, indexed in the background and following new orders
+    private OrderHistoryWindow orderHistoryWindow;
 
-        int finalTotal = total; // capture current total
-        checkoutBtn.addActionListener(ev -> {
-            if (cart.isEmpty()) {
-                JOptionPane.showMessageDialog(cartFrame, "Your cart is empty.");
+    private void openOrderHistory() {
+        if (orderHistoryWindow == null) {
+            // read only: viewing the history does not open the journal for writing
+            java.nio.file.Path log = OrderJournal.sharedFile();
+            if (!java.nio.file.Files.exists(log)) {
+                JOptionPane.showMessageDialog(this, "No orders yet.");
                 return;
             }
-            // open prettier checkout form
-            openCheckoutForm(finalTotal, cartFrame);
-        });
-
-        panel.add(Box.createVerticalStrut(10));
-        panel.add(checkoutBtn);
-
-        JScrollPane scrollPane = new JScrollPane(panel);
-        scrollPane.setBorder(null);
-        cartFrame.add(scrollPane);
-        cartFrame.setVisible(true);
+            try {
+                orderHistoryWindow = new OrderHistoryWindow(log, this);
+            } catch (java.io.IOException | RuntimeException ex) {
+                JOptionPane.showMessageDialog(this, "Cannot open the order history: " + ex.getMessage());
+                return;
+            }
+        }
+        orderHistoryWindow.open();
     }
 
     // Session 6: Checkout Form 
-    private void openCheckoutForm(int totalAmount, JFrame parentFrame) {
+    private void openCheckoutForm(long totalAmount, JFrame parentFrame) {
 
         JFrame checkout = new JFrame("Checkout");
         checkout.setSize(420, 480);
@@ -728,10 +891,9 @@ public class FurnitureUI extends JFrame {
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         panel.setBorder(new EmptyBorder(20, 20, 20, 20));
-        panel.setBackground(Color.WHITE);
+        Theme.style(panel, Theme.Role.DIALOG);
 
-        JLabel t = new JLabel("Complete your order");
-        t.setFont(uiFontBold);
+        JLabel t = Theme.style(new JLabel("Complete your order"), Theme.Role.DIALOG_TITLE);
         t.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         JTextField nameField = new JTextField();
@@ -747,24 +909,23 @@ public class FurnitureUI extends JFrame {
         panel.add(t);
         panel.add(Box.createVerticalStrut(12));
 
-        panel.add(new JLabel("Full Name"));
+        panel.add(Theme.style(new JLabel("Full Name"), Theme.Role.FORM_LABEL));
         panel.add(nameField);
         panel.add(Box.createVerticalStrut(8));
 
-        panel.add(new JLabel("Phone Number"));
+        panel.add(Theme.style(new JLabel("Phone Number"), Theme.Role.FORM_LABEL));
         panel.add(phoneField);
         panel.add(Box.createVerticalStrut(8));
 
-        panel.add(new JLabel("Email"));
+        panel.add(Theme.style(new JLabel("Email"), Theme.Role.FORM_LABEL));
         panel.add(emailField);
         panel.add(Box.createVerticalStrut(8));
 
-        panel.add(new JLabel("Shipping Address"));
+        panel.add(Theme.style(new JLabel("Shipping Address"), Theme.Role.FORM_LABEL));
         panel.add(addressField);
         panel.add(Box.createVerticalStrut(12));
 
-        JLabel totalLabel = new JLabel("Order total: " + totalAmount + " DA");
-        totalLabel.setFont(uiFontBold);
+        JLabel totalLabel = Theme.style(new JLabel("Order total: " + Product.formatPrice(totalAmount)), Theme.Role.DIALOG_TITLE);
         totalLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         panel.add(totalLabel);
@@ -775,34 +936,37 @@ public class FurnitureUI extends JFrame {
         confirmBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
 
         confirmBtn.addActionListener(e -> {
-
-            if (nameField.getText().trim().isEmpty()
-                    || phoneField.getText().trim().isEmpty()
-                    || emailField.getText().trim().isEmpty()
-                    || addressField.getText().trim().isEmpty()) {
-
-                JOptionPane.showMessageDialog(checkout, "Please fill in all fields.");
-                return;
-            }
-
-            if (!phoneField.getText().matches("[0-9]+")) {
-                JOptionPane.showMessageDialog(checkout, "Phone number must contain digits only.");
-                return;
-            }
-
-            if (!emailField.getText().matches("^.+@.+\\..+$")) {
-                JOptionPane.showMessageDialog(checkout, "Invalid email address.");
+            CheckoutEngine.Customer customer = new CheckoutEngine.Customer(
+                    nameField.getText(), phoneField.getText(), emailField.getText(), addressField.getText());
+
+            // opening the journal can fail (orders.txt not writable, bad durability setting):
+            // say so and leave the button usable
+            CheckoutEngine engine;
+            try {
+                engine = checkoutEngine();
+            } catch (RuntimeException ex) {
+                JOptionPane.showMessageDialog(checkout, "Error saving order: " + ex.getMessage());
                 return;
             }
 
-            saveOrderToFile(totalAmount);
-
-            JOptionPane.showMessageDialog(checkout,
-                    "Order Confirmed!\nThank you " + nameField.getText() + " ♥");
+            // validated and priced here, written by the journal's background thread;
+            // confirm once it is on disk
+            confirmBtn.setEnabled(false);
+            engine.checkout(customer, cart).whenComplete((order, err) -> SwingUtilities.invokeLater(() -> {
+                if (err != null) {
+                    confirmBtn.setEnabled(true);
+                    Throwable cause = err instanceof java.util.concurrent.CompletionException ? err.getCause() : err;
+                    JOptionPane.showMessageDialog(checkout, cause instanceof CheckoutEngine.CheckoutException
+                            ? cause.getMessage() : "Error saving order: " + cause.getMessage());
+                    return;
+                }
+                JOptionPane.showMessageDialog(checkout,
+                        "Order Confirmed!\nThank you " + nameField.getText() + " ♥");
 
-            cart.clear();
-            checkout.dispose();
-            parentFrame.dispose();
+                cart.clear();
+                checkout.dispose();
+                parentFrame.setVisible(false);
+            }));
         });
 
         panel.add(confirmBtn);
@@ -812,23 +976,33 @@ public class FurnitureUI extends JFrame {
     }
 
     //  Session 7: Save order to file
-    private void saveOrderToFile(long total) {
-        try (FileWriter fw = new FileWriter("orders.txt", true)) {
-            fw.write("----- NEW ORDER -----\n");
-            fw.write("Date: " + LocalDateTime.now() + "\n");
-            for (Product p : cart) {
-                fw.write(p.name + " - " + p.price + "\n");
-            }
-            fw.write("Total: " + total + " DA\n");
-            fw.write("---------------------\n\n");
-            fw.flush();
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error saving order: " + e.getMessage());
-        }
+    // validate -> price -> persist lives in CheckoutEngine, one for all windows of the shop
+    private CheckoutEngine checkoutEngine() {
+        return shop.checkout();
     }
 
     // main
+    // -Dfurniture.stations=N opens N station windows side by side (kiosk mode)
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new FurnitureUI().setVisible(true));
+        int stations = Integer.getInteger("furniture.stations", 1);
+        // times every EDT event and samples the EDT when one stalls (Ctrl+Shift+E shows it)
+        if (!"false".equals(System.getProperty("furniture.edt.monitor"))) EdtMonitor.install();
+        SwingUtilities.invokeLater(() -> {
+            if (stations <= 1) {
+                new FurnitureUI().setVisible(true);
+                return;
+            }
+            Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+            int cols = (int) Math.ceil(Math.sqrt(stations));
+            int rows = (stations + cols - 1) / cols;
+            for (int i = 0; i < stations; i++) {
+                FurnitureUI station = new FurnitureUI(Shop.shared());
+                station.setTitle("Furniture - Station " + (i + 1));
+                station.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE); // the others keep running
+                station.setBounds(screen.x + (i % cols) * screen.width / cols, screen.y + (i / cols) * screen.height / rows,
+                        screen.width / cols, screen.height / rows);
+                station.setVisible(true);
+            }
+        });
     }
 }
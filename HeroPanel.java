@@ -0,0 +1,99 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import javax.swing.*;
+
+/**
+ * Panel that paints a background image stretched to its size.
+ * The source is decoded once, and a pre-scaled copy is kept for the current
+ * panel size: a repaint is a single drawImage, the copy is only rebuilt
+ * when the panel is resized.
+ */
+@SuppressWarnings("serial")
+public class HeroPanel extends JPanel {
+
+    private final String fileName;
+    private BufferedImage source;          // decoded once
+    private boolean sourceLoaded = false;
+    private BufferedImage scaled;          // scaled copy for the current size
+
+    // ---------------- repaint-cost counters ----------------
+    private long paintCount = 0;
+    private long rebuildCount = 0;
+    private long totalPaintNanos = 0;
+    private long lastPaintNanos = 0;
+
+    public HeroPanel(String fileName) {
+        this.fileName = fileName;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        super.paintComponent(g);
+
+        int w = getWidth();
+        int h = getHeight();
+        if (w > 0 && h > 0 && source() == null) {
+            // still loading (or missing): light-gray placeholder
+            g.setColor(Color.LIGHT_GRAY);
+            g.fillRect(0, 0, w, h);
+        } else if (w > 0 && h > 0) {
+            if (scaled == null || scaled.getWidth() != w || scaled.getHeight() != h) {
+                scaled = rebuild(w, h);
+                rebuildCount++;
+            }
+            g.drawImage(scaled, 0, 0, null);
+        }
+
+        lastPaintNanos = System.nanoTime() - start;
+        totalPaintNanos += lastPaintNanos;
+        paintCount++;
+        if (Boolean.getBoolean("furniture.debug.hero") && paintCount % 50 == 0) {
+            System.out.println("[hero] " + statsLine());
+        }
+    }
+
+    // scale the decoded source into a compatible image of the given size
+    private BufferedImage rebuild(int w, int h) {
+        BufferedImage src = source();
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        BufferedImage out = gc != null
+                ? gc.createCompatibleImage(w, h, Transparency.OPAQUE)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = out.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2.drawImage(src, 0, 0, w, h, null);
+        g2.dispose();
+        return out;
+    }
+
+    // decoded in the background on first use, shared with the cards that use the same file
+    private BufferedImage source() {
+        if (!sourceLoaded) {
+            sourceLoaded = true;
+            AsyncImageLoader.shared().submit(this, () -> ImageCache.shared().source(fileName), img -> {
+                source = img;
+                scaled = null;
+                repaint();
+            });
+        }
+        return source;
+    }
+
+    // -------------------- stats --------------------
+    public long getPaintCount() { return paintCount; }
+    public long getRebuildCount() { return rebuildCount; }
+    public long getLastPaintNanos() { return lastPaintNanos; }
+
+    public long getAveragePaintNanos() {
+        return paintCount == 0 ? 0 : totalPaintNanos / paintCount;
+    }
+
+    public String statsLine() {
+        return "paints=" + paintCount
+                + " rebuilds=" + rebuildCount
+                + " last=" + (lastPaintNanos / 1000) + "us"
+                + " avg=" + (getAveragePaintNanos() / 1000) + "us";
+    }
+}
@@ -0,0 +1,37 @@
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import javax.swing.JComponent;
+
+/**
+ * The one mouse listener behind every hover effect of the page (buttons,
+ * navbar links, cards): it looks up the component's Theme.Role and has the
+ * current theme apply its hover or normal look, which only hands out
+ * instances the theme already holds. Registered by Theme.style().
+ */
+final class HoverController extends MouseAdapter {
+
+    private static final HoverController SHARED = new HoverController();
+
+    static HoverController shared() {
+        return SHARED;
+    }
+
+    private HoverController() {}
+
+    @Override
+    public void mouseEntered(MouseEvent e) {
+        update(e, true);
+    }
+
+    @Override
+    public void mouseExited(MouseEvent e) {
+        update(e, false);
+    }
+
+    private static void update(MouseEvent e, boolean hover) {
+        if (!(e.getComponent() instanceof JComponent)) return;
+        JComponent c = (JComponent) e.getComponent();
+        Theme.Role role = Theme.roleOf(c);
+        if (role != null) Theme.current().apply(c, role, hover);
+    }
+}
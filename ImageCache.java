@@ -0,0 +1,240 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+import jdk.jfr.EventType;
+
+/**
+ * Shared cache of decoded and scaled images, keyed by (file, width, height).
+ * Full-size sources (e.g. the hero background) are cached too and reused for
+ * other sizes of the same file; otherwise a miss does a subsampled decode,
+ * shared with any caller that misses the same key while it runs.
+ * Entries are evicted least-recently-used first once the byte budget is exceeded.
+ */
+public class ImageCache {
+
+    // default budget, can be changed with -Dfurniture.imageCache.mb=...
+    private static final ImageCache SHARED =
+            new ImageCache(Long.getLong("furniture.imageCache.mb", 64L) * 1024 * 1024);
+
+    static {
+        Metrics m = Metrics.shared();
+        m.gauge("images.cache.bytes", SHARED::getBytesHeld);
+        m.gauge("images.cache.hits", SHARED::getHits);
+        m.gauge("images.cache.misses", SHARED::getMisses);
+        m.gauge("images.cache.evictions", SHARED::getEvictions);
+    }
+
+    public static ImageCache shared() {
+        return SHARED;
+    }
+
+    private static final EventType LOAD_EVENTS = EventType.getEventType(ShopEvents.ImageLoad.class);
+
+    // access-ordered: iteration starts with the least recently used entry
+    private final LinkedHashMap<String, BufferedImage> entries = new LinkedHashMap<>(64, 0.75f, true);
+    // key -> the load decoding it right now, for callers that miss meanwhile
+    private final ConcurrentHashMap<String, CompletableFuture<BufferedImage>> loading = new ConcurrentHashMap<>();
+    private long budgetBytes;
+    private long bytesHeld = 0;
+
+    // ---------------- stats ----------------
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public ImageCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Returns the image scaled to w x h, or null if the file does not exist.
+     * Concurrent misses on the same key decode once: the later callers wait
+     * for the first one's result.
+     */
+    public BufferedImage get(String fileName, int w, int h) {
+        String key = fileName + "@" + w + "x" + h;
+        BufferedImage img = cached(key);
+        if (img != null) {
+            // hits are the hot path: no event object unless a recording wants one
+            return LOAD_EVENTS.isEnabled() ? loaded(new ShopEvents.ImageLoad(), fileName, w, h, "cache", img) : img;
+        }
+
+        ShopEvents.ImageLoad event = new ShopEvents.ImageLoad();
+        event.begin();
+        CompletableFuture<BufferedImage> mine = new CompletableFuture<>();
+        CompletableFuture<BufferedImage> first = loading.putIfAbsent(key, mine);
+        if (first != null) {
+            synchronized (this) {
+                hits++;
+            }
+            return loaded(event, fileName, w, h, "in-flight", first.join());
+        }
+        try {
+            img = cached(key); // loaded and published between our lookup and putIfAbsent
+            if (img != null) {
+                mine.complete(img);
+                return loaded(event, fileName, w, h, "cache", img);
+            }
+            synchronized (this) {
+                misses++;
+            }
+            img = load(key, fileName, w, h, event);
+            mine.complete(img);
+            return loaded(event, fileName, w, h, event.source, img);
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    private synchronized BufferedImage cached(String key) {
+        BufferedImage img = entries.get(key);
+        if (img != null) hits++;
+        return img;
+    }
+
+    // decode and scale outside the lock: reuse a full-size source when one is
+    // already held, otherwise do a subsampled decode straight to the target size
+    private BufferedImage load(String key, String fileName, int w, int h, ShopEvents.ImageLoad event) {
+        long t0 = System.nanoTime();
+        BufferedImage src;
+        synchronized (this) {
+            src = entries.get(fileName);
+        }
+        BufferedImage scaled;
+        if (src != null) {
+            scaled = ImageScaler.scale(src, w, h);
+            event.source = "source";
+        } else {
+            scaled = decodeScaled(fileName, w, h, event);
+        }
+        Metrics.shared().timer("images.load").record(System.nanoTime() - t0);
+        if (scaled != null) put(key, scaled);
+        return scaled;
+    }
+
+    private static BufferedImage loaded(ShopEvents.ImageLoad event, String fileName, int w, int h, String source, BufferedImage img) {
+        if (event.shouldCommit()) {
+            event.file = fileName;
+            event.width = w;
+            event.height = h;
+            event.cacheHit = "cache".equals(source);
+            event.source = source;
+            event.bytes = img == null ? 0 : sizeOf(img);
+            event.commit();
+        }
+        return img;
+    }
+
+    /** Returns the scaled image only if it is already cached (never decodes). */
+    public synchronized BufferedImage peek(String fileName, int w, int h) {
+        BufferedImage img = entries.get(fileName + "@" + w + "x" + h);
+        if (img != null) hits++;
+        return img;
+    }
+
+    /** Returns the decoded full-size image, or null if the file does not exist. */
+    public BufferedImage source(String fileName) {
+        synchronized (this) {
+            BufferedImage img = entries.get(fileName);
+            if (img != null) {
+                hits++;
+                return img;
+            }
+            misses++;
+        }
+
+        BufferedImage src = decode(fileName);
+        if (src != null) put(fileName, src);
+        return src;
+    }
+
+    private synchronized void put(String key, BufferedImage img) {
+        BufferedImage old = entries.put(key, img);
+        if (old != null) bytesHeld -= sizeOf(old);
+        bytesHeld += sizeOf(img);
+        trim();
+    }
+
+    // evict least recently used entries until we are back under budget
+    private void trim() {
+        Iterator<Map.Entry<String, BufferedImage>> it = entries.entrySet().iterator();
+        while (bytesHeld > budgetBytes && it.hasNext()) {
+            BufferedImage img = it.next().getValue();
+            it.remove();
+            bytesHeld -= sizeOf(img);
+            evictions++;
+        }
+    }
+
+    public synchronized void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        trim();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytesHeld = 0;
+    }
+
+    // -------------------- decode / scale --------------------
+    static java.net.URL resource(String fileName) {
+        return ImageCache.class.getResource("/images/" + fileName);
+    }
+
+    private static BufferedImage decode(String fileName) {
+        try {
+            java.net.URL imgURL = resource(fileName);
+            if (imgURL == null) return null;
+            return ImageIO.read(imgURL);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // thumbnail from a previous launch if the source is unchanged, else decode and save one
+    private static BufferedImage decodeScaled(String fileName, int w, int h, ShopEvents.ImageLoad event) {
+        try {
+            java.net.URL imgURL = resource(fileName);
+            if (imgURL == null) return null;
+            BufferedImage img = ThumbnailStore.shared().get(fileName, imgURL, w, h);
+            event.source = "thumbnail";
+            if (img == null) {
+                event.source = "decode";
+                img = ImageScaler.load(imgURL, w, h);
+                if (img != null) ThumbnailStore.shared().put(fileName, imgURL, img);
+            }
+            return img;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    static long sizeOf(BufferedImage img) {
+        DataBuffer db = img.getRaster().getDataBuffer();
+        return (long) db.getSize() * db.getNumBanks() * DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+    }
+
+    // -------------------- stats --------------------
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized long getBytesHeld() { return bytesHeld; }
+    public synchronized long getBudgetBytes() { return budgetBytes; }
+    public synchronized int size() { return entries.size(); }
+
+    public synchronized String statsLine() {
+        return "entries=" + entries.size()
+                + " hits=" + hits
+                + " misses=" + misses
+                + " evictions=" + evictions
+                + " held=" + (bytesHeld / 1024) + "KB/" + (budgetBytes / 1024) + "KB";
+    }
+}
@@ -0,0 +1,136 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.ImageIcon;
+
+/**
+ * Decode + scale used by the image cache.
+ * Baseline JPEGs are read with ImageIO source subsampling so we never decode far
+ * more pixels than needed; progressive JPEGs (all of images/ today) go through
+ * the native Toolkit decoder instead. The result is then reduced by successive
+ * halvings (bilinear) and a final bicubic pass into a BufferedImage that can be
+ * drawn without rescaling.
+ */
+public class ImageScaler {
+
+    private ImageScaler() {}
+
+    /** Decodes the image at url scaled to w x h, or null if it cannot be read. */
+    public static BufferedImage load(java.net.URL url, int w, int h) throws IOException {
+        // ImageIO decodes progressive JPEGs pass by pass and gains nothing from
+        // subsampling there; the native Toolkit decoder is several times faster
+        if (isProgressiveJpeg(url)) {
+            BufferedImage full = toolkitDecode(url);
+            return full == null ? null : scale(full, w, h);
+        }
+
+        try (InputStream raw = url.openStream();
+             ImageInputStream in = ImageIO.createImageInputStream(raw)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int sw = reader.getWidth(0);
+                int sh = reader.getHeight(0);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int sub = subsampling(sw, sh, w, h);
+                if (sub > 1) param.setSourceSubsampling(sub, sub, 0, 0);
+
+                return scale(reader.read(0, param), w, h);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage toolkitDecode(java.net.URL url) {
+        ImageIcon icon = new ImageIcon(url); // waits until the image is loaded
+        Image img = icon.getImage();
+        if (icon.getImageLoadStatus() != MediaTracker.COMPLETE || icon.getIconWidth() <= 0) return null;
+        BufferedImage bi = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = bi.createGraphics();
+        g2.drawImage(img, 0, 0, null);
+        g2.dispose();
+        img.flush();
+        return bi;
+    }
+
+    // walks the JPEG markers up to the frame header: SOF2 / SOF6 / SOF10 / SOF14 are progressive
+    static boolean isProgressiveJpeg(java.net.URL url) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(url.openStream()))) {
+            if (in.readUnsignedShort() != 0xFFD8) return false; // not a JPEG
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00) return false;
+                if (marker >= 0xFFC0 && marker <= 0xFFCF && marker != 0xFFC4 && marker != 0xFFC8 && marker != 0xFFCC) {
+                    int sof = marker & 0x0F;
+                    return sof == 2 || sof == 6 || sof == 10 || sof == 14;
+                }
+                if (marker == 0xFFDA || marker == 0xFFD9) return false;
+                int len = in.readUnsignedShort();
+                in.skipNBytes(len - 2);
+            }
+        } catch (java.io.EOFException e) {
+            return false;
+        }
+    }
+
+    // subsampling is point sampling, so keep about 2x the target size and let
+    // the filtered passes do the rest (avoids aliasing on fine textures)
+    static int subsampling(int sw, int sh, int w, int h) {
+        return Math.max(1, Math.min(sw / (2 * w), sh / (2 * h)));
+    }
+
+    /** Scales src to exactly w x h. */
+    public static BufferedImage scale(BufferedImage src, int w, int h) {
+        BufferedImage cur = src;
+        int cw = src.getWidth();
+        int ch = src.getHeight();
+
+        // halve while we are at least 2x too big: bilinear is exact enough at 50%
+        while (cw / 2 >= w || ch / 2 >= h) {
+            int nw = Math.max(w, cw / 2);
+            int nh = Math.max(h, ch / 2);
+            cur = draw(cur, nw, nh, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            cw = nw;
+            ch = nh;
+        }
+        if (cw == w && ch == h && isCompatible(cur)) return cur;
+        return draw(cur, w, h, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    }
+
+    private static BufferedImage draw(BufferedImage src, int w, int h, Object interpolation) {
+        BufferedImage out = createCompatible(w, h, src.getColorModel().hasAlpha());
+        Graphics2D g2 = out.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2.drawImage(src, 0, 0, w, h, null);
+        g2.dispose();
+        return out;
+    }
+
+    // an image in the screen's pixel format is blitted without conversion
+    static BufferedImage createCompatible(int w, int h, boolean alpha) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(w, h, alpha ? Transparency.TRANSLUCENT : Transparency.OPAQUE);
+        }
+        return new BufferedImage(w, h, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+    }
+
+    private static boolean isCompatible(BufferedImage img) {
+        int t = img.getType();
+        return t == BufferedImage.TYPE_INT_RGB || t == BufferedImage.TYPE_INT_ARGB;
+    }
+}
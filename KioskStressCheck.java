@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Self-check for kiosk mode: simulated stations share one frozen catalog and
+ * one CheckoutEngine / OrderJournal, each with its own Cart, and check out
+ * as fast as they can. Afterwards the log must parse record by record and
+ * hold exactly the orders that were confirmed (compared as text), so nothing
+ * interleaved, got lost or leaked from one cart into another. Runs with a
+ * growing number of stations and prints the throughput of each run.
+ * Exits with status 1 if a check fails.
+ *
+ * Usage: java -cp . KioskStressCheck [orders per station] [max stations] [catalog.csv]
+ */
+public class KioskStressCheck {
+
+    public static void main(String[] args) throws Exception {
+        int perStation = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int maxStations = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        Catalog catalog = Catalog.load(Paths.get(args.length > 2 ? args[2] : "catalog.csv")).freeze();
+
+        boolean ok = true;
+        double first = 0;
+        System.out.printf("%9s %8s %12s  %s%n", "stations", "orders", "orders/sec", "log");
+        for (int stations = 1; stations <= maxStations; stations *= 2) {
+            Path log = Files.createTempFile("kiosk-orders", ".txt");
+            try {
+                Map<String, Integer> confirmed = new ConcurrentHashMap<>();
+                double rate = run(catalog, log, stations, perStation, confirmed);
+                String problem = verify(log, confirmed, stations * perStation);
+                if (first == 0) first = rate;
+                System.out.printf("%9d %8d %12.0f  %s%n", stations, stations * perStation, rate, problem == null ? "intact" : "BROKEN: " + problem);
+                if (problem != null) ok = false;
+            } finally {
+                Files.deleteIfExists(log);
+            }
+        }
+        System.out.println(ok ? "OK" : "FAILED");
+        if (!ok) System.exit(1);
+    }
+
+    // each station: fill its cart, check out, wait until it is on disk, repeat
+    private static double run(Catalog catalog, Path log, int stations, int perStation, Map<String, Integer> confirmed)
+            throws Exception {
+        List<Product> products = catalog.all();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[stations];
+        long t0;
+        try (OrderJournal journal = new OrderJournal(log, OrderJournal.Durability.BATCHED)) {
+            CheckoutEngine engine = new CheckoutEngine(catalog, journal);
+            for (int s = 0; s < stations; s++) {
+                int station = s;
+                threads[s] = new Thread(() -> {
+                    Random rnd = new Random(station);
+                    Cart cart = new Cart();
+                    CheckoutEngine.Customer customer = new CheckoutEngine.Customer("Station " + station,
+                            "0555" + station, "station" + station + "@example.com", "Store, till " + station);
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perStation; i++) {
+                        int lines = 1 + rnd.nextInt(4);
+                        for (int l = 0; l < lines; l++) cart.add(products.get(rnd.nextInt(products.size())), 1 + rnd.nextInt(3));
+                        try {
+                            Order o = engine.checkout(customer, cart).join();
+                            confirmed.merge(o.toText(), 1, Integer::sum);
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                        cart.clear();
+                    }
+                }, "station-" + s);
+                threads[s].start();
+            }
+            t0 = System.nanoTime();
+            start.countDown();
+            for (Thread t : threads) t.join();
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+        if (failures.get() > 0) throw new IllegalStateException(failures.get() + " checkouts failed");
+        return stations * perStation / secs;
+    }
+
+    // null if the log holds exactly the confirmed orders, otherwise what is wrong
+    private static String verify(Path log, Map<String, Integer> confirmed, int expected) throws IOException {
+        Map<String, Integer> left = new HashMap<>(confirmed);
+        int records = 0;
+        try (OrderTextParser parser = new OrderTextParser(Files.newBufferedReader(log, StandardCharsets.UTF_8))) {
+            Order o;
+            while ((o = parser.next()) != null) {
+                records++;
+                long sum = 0;
+                for (Order.Item i : o.items) sum += i.subtotal();
+                if (sum != o.total) return "record " + records + ": total does not match its lines";
+                String text = o.toText();
+                Integer n = left.get(text);
+                if (n == null) return "record " + records + " was never confirmed";
+                if (n == 1) left.remove(text);
+                else left.put(text, n - 1);
+            }
+        } catch (IOException e) {
+            return e.getMessage();
+        }
+        if (records != expected) return records + " records, expected " + expected;
+        if (!left.isEmpty()) return left.size() + " confirmed orders missing";
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (the HdrHistogram
+ * layout): values below 128 get a bucket each, above that every power of two
+ * is cut into 64 equal steps, so a percentile is reported within about 1.6%
+ * of the real value. Fixed footprint (~30 KB) whatever is recorded; any
+ * thread can record. Values are nanoseconds.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int LINEAR = 1 << SUB_BITS;   // 128 exact buckets
+    private static final int HALF = LINEAR / 2;         // 64 steps per power of two
+    private static final int BUCKETS = LINEAR + (63 - SUB_BITS + 1) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(index(nanos));
+        count.incrementAndGet();
+        sum.addAndGet(nanos);
+        long m;
+        while (nanos > (m = max.get()) && !max.compareAndSet(m, nanos)) {
+            // retry
+        }
+    }
+
+    static int index(long v) {
+        int shift = 64 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        if (shift <= 0) return (int) v;
+        return LINEAR + (shift - 1) * HALF + (int) ((v >>> shift) - HALF);
+    }
+
+    // largest value that lands in this bucket
+    static long highestIn(int index) {
+        if (index < LINEAR) return index;
+        int shift = (index - LINEAR) / HALF + 1;
+        long sub = (index - LINEAR) % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /** Value at or below which the given fraction (0..1) of recordings fall. */
+    public long percentile(double p) {
+        long n = count.get();
+        if (n == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(p * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(highestIn(i), max.get());
+        }
+        return max.get();
+    }
+
+    /** Adds the other histogram's recordings to this one. */
+    public void add(LatencyHistogram o) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = o.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        count.addAndGet(o.count.get());
+        sum.addAndGet(o.sum.get());
+        long m, om = o.max.get();
+        while (om > (m = max.get()) && !max.compareAndSet(m, om)) {
+            // retry
+        }
+    }
+
+    /** Clears it (recordings made meanwhile may be partly lost). */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    public long count() { return count.get(); }
+    public long max() { return max.get(); }
+    public double mean() { long n = count.get(); return n == 0 ? 0 : (double) sum.get() / n; }
+
+    /** "n=… mean=… p50=… p99=… p99.9=… max=…" in milliseconds. */
+    public String summary() {
+        return String.format("n=%d mean=%.2fms p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms", count(), mean() / 1e6,
+                percentile(0.50) / 1e6, percentile(0.99) / 1e6, percentile(0.999) / 1e6, max() / 1e6);
+    }
+}
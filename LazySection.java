@@ -0,0 +1,70 @@
+import java.awt.*;
+import java.util.function.Supplier;
+import javax.swing.*;
+
+/**
+ * Stand-in for a page section that is only built when first needed. Until
+ * then it is an empty panel with an estimated height, so the page has
+ * (about) its final length and the scrollbar does not jump. materialize()
+ * runs the builder once and puts the real section in its place; from then on
+ * sizes are the section's own. Used by FurnitureUI for everything below the
+ * hero, see materializeNear().
+ */
+@SuppressWarnings("serial")
+public class LazySection extends JPanel {
+
+    private final String name;
+    private final int reservedHeight;
+    private Supplier<? extends JComponent> builder;
+    private JComponent content;
+    private long buildNanos;
+
+    public LazySection(String name, int reservedHeight, Supplier<? extends JComponent> builder) {
+        super(new BorderLayout());
+        this.name = name;
+        this.reservedHeight = reservedHeight;
+        this.builder = builder;
+        setOpaque(false);
+    }
+
+    /** Builds the section if that was not done yet (EDT only); returns it. */
+    public JComponent materialize() {
+        if (content == null) {
+            long t0 = System.nanoTime();
+            content = builder.get();
+            builder = null;
+            add(content, BorderLayout.CENTER);
+            buildNanos = System.nanoTime() - t0;
+            revalidate();
+        }
+        return content;
+    }
+
+    public boolean isBuilt() {
+        return content != null;
+    }
+
+    public String getSectionName() {
+        return name;
+    }
+
+    /** Time the builder took, 0 while not built. */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return content != null ? super.getPreferredSize() : new Dimension(0, reservedHeight);
+    }
+
+    @Override
+    public Dimension getMaximumSize() {
+        return content != null ? content.getMaximumSize() : new Dimension(Integer.MAX_VALUE, reservedHeight);
+    }
+
+    @Override
+    public Dimension getMinimumSize() {
+        return content != null ? super.getMinimumSize() : new Dimension(0, reservedHeight);
+    }
+}
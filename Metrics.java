@@ -0,0 +1,176 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.ObjectName;
+
+/**
+ * In-process metrics: named counters, gauges (read when asked), meters
+ * (events per minute over the last 60 seconds) and timers (LatencyHistogram).
+ * The shared registry is published over JMX as furniture:type=Metrics
+ * (jconsole, JMC, `jcmd <pid> ManagementAgent.start` for remote tools), with
+ * the figures the shop is watched by - orders per minute, average basket,
+ * image cache memory, order writes still pending - plus every registered
+ * metric by name.
+ */
+public class Metrics {
+
+    /** The JMX view of the shared registry. */
+    public interface MetricsMXBean {
+        /** Orders persisted in the last 60 seconds. */
+        long getOrdersPerMinute();
+
+        /** Mean order total since start, in DA. */
+        double getAverageBasketValue();
+
+        long getImageCacheBytes();
+
+        /** Orders submitted to the journal and not yet written. */
+        long getPendingWrites();
+
+        Map<String, Long> getCounters();
+
+        Map<String, Long> getGauges();
+
+        /** Timer name -> LatencyHistogram summary. */
+        Map<String, String> getTimers();
+    }
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() { value.increment(); }
+        public void add(long n) { value.add(n); }
+        public long get() { return value.sum(); }
+    }
+
+    /** Events per minute: 60 one-second buckets, the current one reused after a minute. */
+    public static final class Meter {
+        private final AtomicLongArray counts = new AtomicLongArray(60);
+        private final AtomicLongArray seconds = new AtomicLongArray(60);
+
+        public void mark() {
+            long now = System.currentTimeMillis() / 1000;
+            int i = (int) (now % 60);
+            long s = seconds.get(i);
+            if (s != now && seconds.compareAndSet(i, s, now)) counts.set(i, 0);
+            counts.incrementAndGet(i);
+        }
+
+        public long perMinute() {
+            long now = System.currentTimeMillis() / 1000;
+            long n = 0;
+            for (int i = 0; i < 60; i++) {
+                if (now - seconds.get(i) < 60) n += counts.get(i);
+            }
+            return n;
+        }
+    }
+
+    private static final Metrics SHARED = new Metrics("furniture:type=Metrics");
+
+    public static Metrics shared() {
+        return SHARED;
+    }
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Meter> meters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+
+    private Metrics(String jmxName) {
+        // the platform MBean server takes a while to start: not on the caller's thread
+        Thread t = new Thread(() -> register(jmxName), "metrics-jmx");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public Meter meter(String name) {
+        return meters.computeIfAbsent(name, n -> new Meter());
+    }
+
+    public LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /** Registers (or replaces) a gauge, read each time the metrics are looked at. */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    private long gaugeValue(String name) {
+        LongSupplier g = gauges.get(name);
+        return g == null ? 0 : g.getAsLong();
+    }
+
+    // -------------------- shop figures --------------------
+
+    /** Called once an order is durable. */
+    public void orderPersisted(Order o) {
+        meter("orders").mark();
+        counter("orders.count").increment();
+        counter("orders.value").add(o.total);
+    }
+
+    private void register(String jmxName) {
+        MetricsMXBean view = new MetricsMXBean() {
+            public long getOrdersPerMinute() {
+                return meter("orders").perMinute();
+            }
+
+            public double getAverageBasketValue() {
+                long n = counter("orders.count").get();
+                return n == 0 ? 0 : counter("orders.value").get() / 100.0 / n;
+            }
+
+            public long getImageCacheBytes() {
+                return gaugeValue("images.cache.bytes");
+            }
+
+            public long getPendingWrites() {
+                return gaugeValue("orders.pending");
+            }
+
+            public Map<String, Long> getCounters() {
+                Map<String, Long> m = new TreeMap<>();
+                counters.forEach((k, c) -> m.put(k, c.get()));
+                meters.forEach((k, c) -> m.put(k + ".perMinute", c.perMinute()));
+                return m;
+            }
+
+            public Map<String, Long> getGauges() {
+                Map<String, Long> m = new TreeMap<>();
+                gauges.forEach((k, g) -> m.put(k, g.getAsLong()));
+                return m;
+            }
+
+            public Map<String, String> getTimers() {
+                Map<String, String> m = new TreeMap<>();
+                timers.forEach((k, h) -> m.put(k, h.summary()));
+                return m;
+            }
+        };
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(view, new ObjectName(jmxName));
+        } catch (Exception | LinkageError e) {
+            System.err.println("Metrics: not published over JMX: " + e);
+        }
+    }
+
+    /** All metrics, one per line, for logs and CLI tools. */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(counters).forEach((k, c) -> sb.append(k).append(' ').append(c.get()).append('\n'));
+        new TreeMap<>(meters).forEach((k, m) -> sb.append(k).append(".perMinute ").append(m.perMinute()).append('\n'));
+        new TreeMap<>(gauges).forEach((k, g) -> sb.append(k).append(' ').append(g.getAsLong()).append('\n'));
+        new TreeMap<>(timers).forEach((k, h) -> sb.append(k).append(' ').append(h.summary()).append('\n'));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,74 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a placed order, as written to orders.txt.
+ */
+public class Order {
+
+    public static class Item {
+        final int productId;
+        final String name;
+        final long unitPrice; // minor units
+        final int quantity;
+
+        public Item(int productId, String name, long unitPrice, int quantity) {
+            this.productId = productId;
+            this.name = name;
+            this.unitPrice = unitPrice;
+            this.quantity = quantity;
+        }
+
+        public long subtotal() {
+            return unitPrice * quantity;
+        }
+
+        @Override
+        public String toString() {
+            return name + " - " + Product.formatPrice(unitPrice) + (quantity > 1 ? " x " + quantity : "");
+        }
+    }
+
+    final LocalDateTime date;
+    final List<Item> items;
+    final long total; // minor units
+
+    public Order(LocalDateTime date, List<Item> items) {
+        this(date, items, sum(items));
+    }
+
+    /** With the total as recorded (read back from a log), which may differ from the sum. */
+    public Order(LocalDateTime date, List<Item> items, long total) {
+        this.date = date;
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.total = total;
+    }
+
+    private static long sum(List<Item> items) {
+        long t = 0;
+        for (Item i : items) t = Math.addExact(t, i.subtotal());
+        return t;
+    }
+
+    /** Copies the current cart lines. */
+    public static Order fromCart(Cart cart) {
+        ArrayList<Item> items = new ArrayList<>(cart.size());
+        for (Cart.Line l : cart.lines()) {
+            items.add(new Item(l.product.id, l.product.name, l.product.price, l.quantity));
+        }
+        return new Order(LocalDateTime.now(), items);
+    }
+
+    /** The record as appended to orders.txt. */
+    public String toText() {
+        StringBuilder sb = new StringBuilder(64 + items.size() * 40);
+        sb.append("----- NEW ORDER -----\n");
+        sb.append("Date: ").append(date).append('\n');
+        for (Item i : items) sb.append(i).append('\n');
+        sb.append("Total: ").append(Product.formatPrice(total)).append('\n');
+        sb.append("---------------------\n\n");
+        return sb.toString();
+    }
+}
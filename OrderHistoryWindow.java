@@ -0,0 +1,242 @@
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Past orders, for operators. Opens empty and fills in while an OrderLogIndex
+ * is built on a background thread; the table only asks for the rows on
+ * screen, which are read a page at a time (one positioned read per page) and
+ * kept in a small LRU cache. Once the log has been indexed, new bytes are
+ * polled every half second and appended rows show up live (tail mode).
+ */
+@SuppressWarnings("serial")
+public class OrderHistoryWindow extends JFrame {
+
+    private static final int PAGE = 200;
+    private static final int CACHED_PAGES = 32;
+    private static final long SCAN_STEP = 16L << 20; // publish progress every 16 MB
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final OrderLogIndex index;
+    private final HistoryModel model = new HistoryModel();
+    private final JTable table = new JTable(model);
+    private final JTextArea detail = new JTextArea();
+    private final JLabel status = new JLabel("Indexing...");
+    private final JCheckBox follow = new JCheckBox("Follow new orders", true);
+
+    private final ScheduledExecutorService indexer = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "order-history-index"));
+    private final ExecutorService pager = Executors.newSingleThreadExecutor(r -> daemon(r, "order-history-pages"));
+
+    public OrderHistoryWindow(Path log, Component owner) throws IOException {
+        super("Order History");
+        index = new OrderLogIndex(log);
+        setSize(900, 650);
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+
+        table.setRowHeight(24);
+        table.setFillsViewportHeight(true);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getColumnModel().getColumn(0).setPreferredWidth(70);
+        table.getColumnModel().getColumn(1).setPreferredWidth(150);
+        table.getColumnModel().getColumn(2).setPreferredWidth(460);
+        table.getColumnModel().getColumn(3).setPreferredWidth(60);
+        table.getColumnModel().getColumn(4).setPreferredWidth(110);
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) showDetail(table.getSelectedRow());
+        });
+
+        detail.setEditable(false);
+        detail.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
+        detail.setBorder(new EmptyBorder(8, 10, 8, 10));
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(table), new JScrollPane(detail));
+        split.setResizeWeight(0.75);
+
+        JPanel bottom = new JPanel(new BorderLayout());
+        bottom.setBorder(new EmptyBorder(4, 10, 4, 10));
+        follow.setOpaque(false);
+        bottom.add(status, BorderLayout.WEST);
+        bottom.add(follow, BorderLayout.EAST);
+
+        add(split, BorderLayout.CENTER);
+        add(bottom, BorderLayout.SOUTH);
+
+        indexer.execute(this::initialScan);
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    /** Shows the window (or brings it to the front if already open). */
+    public void open() {
+        setVisible(true);
+        toFront();
+    }
+
+    @Override
+    public void dispose() {
+        indexer.shutdownNow();
+        pager.shutdownNow();
+        try {
+            index.close();
+        } catch (IOException ignored) {
+        }
+        super.dispose();
+    }
+
+    // -------------------- indexing (background) --------------------
+    private void initialScan() {
+        try {
+            while (index.scannedBytes() < index.fileSize()) {
+                int added = index.update(SCAN_STEP);
+                publish(added);
+                if (added == 0 && index.scannedBytes() + SCAN_STEP > index.fileSize()) break; // unfinished tail
+            }
+            publish(0);
+            indexer.scheduleWithFixedDelay(this::tail, 500, 500, TimeUnit.MILLISECONDS);
+        } catch (IOException e) {
+            SwingUtilities.invokeLater(() -> status.setText("Cannot read " + index.getFile() + ": " + e.getMessage()));
+        }
+    }
+
+    private void tail() {
+        try {
+            int added = index.update(Long.MAX_VALUE);
+            if (added != 0) publish(added);
+        } catch (IOException e) {
+            SwingUtilities.invokeLater(() -> status.setText("Cannot read " + index.getFile() + ": " + e.getMessage()));
+        }
+    }
+
+    private void publish(int added) throws IOException {
+        int rows = index.size();
+        long scanned = index.scannedBytes(), size = index.fileSize();
+        SwingUtilities.invokeLater(() -> {
+            if (added < 0) model.reset();
+            model.grow(rows);
+            String progress = scanned < size && size - scanned > SCAN_STEP
+                    ? String.format("  (indexing %d%%)", scanned * 100 / size) : "";
+            status.setText(String.format("%,d orders, %.1f MB%s", rows, size / 1e6, progress));
+        });
+    }
+
+    // -------------------- detail --------------------
+    private void showDetail(int row) {
+        Order o = row < 0 ? null : model.order(row);
+        detail.setText(o == null ? "" : o.toText());
+        detail.setCaretPosition(0);
+    }
+
+    // -------------------- table model --------------------
+    @SuppressWarnings("serial")
+    private class HistoryModel extends AbstractTableModel {
+        private final String[] columns = {"#", "Date", "Items", "Units", "Total"};
+        private int rows;
+        // page number -> orders of that page, least recently used first (EDT only)
+        private final LinkedHashMap<Integer, List<Order>> pages = new LinkedHashMap<Integer, List<Order>>(64, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Order>> e) {
+                return size() > CACHED_PAGES;
+            }
+        };
+        private final HashSet<Integer> loading = new HashSet<>();
+
+        public int getRowCount() { return rows; }
+        public int getColumnCount() { return columns.length; }
+        public String getColumnName(int c) { return columns[c]; }
+
+        void grow(int newRows) {
+            if (newRows <= rows) return;
+            int old = rows;
+            rows = newRows;
+            pages.remove(old / PAGE); // the last page may have been read while partly filled
+            fireTableRowsInserted(old, newRows - 1);
+            if (follow.isSelected() && old > 0) {
+                table.scrollRectToVisible(table.getCellRect(newRows - 1, 0, true));
+            }
+        }
+
+        void reset() {
+            rows = 0;
+            pages.clear();
+            loading.clear();
+            fireTableDataChanged();
+        }
+
+        public Object getValueAt(int row, int col) {
+            if (col == 0) return row + 1;
+            Order o = order(row);
+            if (o == null) return col == 2 ? (isLoaded(row) ? "(unreadable record)" : "...") : "";
+            switch (col) {
+                case 1: return DATE.format(o.date);
+                case 2: return summary(o);
+                case 3: return units(o);
+                default: return Product.formatPrice(o.total);
+            }
+        }
+
+        private boolean isLoaded(int row) {
+            List<Order> page = pages.get(row / PAGE);
+            return page != null && row % PAGE < page.size();
+        }
+
+        // the order on this row if its page is in memory, otherwise asks for the page
+        Order order(int row) {
+            int p = row / PAGE;
+            List<Order> page = pages.get(p);
+            if (page != null && row % PAGE < page.size()) return page.get(row % PAGE);
+            if (loading.add(p)) pager.execute(() -> load(p));
+            return null;
+        }
+
+        private void load(int p) {
+            try {
+                List<Order> orders = index.read(p * PAGE, PAGE);
+                SwingUtilities.invokeLater(() -> {
+                    loading.remove(p);
+                    pages.put(p, orders);
+                    int first = p * PAGE, last = Math.min(rows, first + orders.size()) - 1;
+                    if (last >= first) fireTableRowsUpdated(first, last);
+                    if (table.getSelectedRow() >= first && table.getSelectedRow() <= last) showDetail(table.getSelectedRow());
+                });
+            } catch (IOException e) {
+                SwingUtilities.invokeLater(() -> {
+                    loading.remove(p);
+                    status.setText("Cannot read orders: " + e.getMessage());
+                });
+            }
+        }
+    }
+
+    private static String summary(Order o) {
+        StringBuilder sb = new StringBuilder();
+        for (Order.Item i : o.items) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(i.name);
+            if (i.quantity > 1) sb.append(" x").append(i.quantity);
+            if (sb.length() > 120) return sb.append("...").toString();
+        }
+        return sb.toString();
+    }
+
+    private static long units(Order o) {
+        long n = 0;
+        for (Order.Item i : o.items) n += i.quantity;
+        return n;
+    }
+}
@@ -0,0 +1,220 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only order log (orders.txt) with a single background writer.
+ * Callers put orders on a lock-free queue and get a future that completes once
+ * the order is as durable as the chosen mode requires:
+ *   PER_ORDER - written and fsync'ed one by one
+ *   BATCHED   - everything queued is written in one go with one fsync (group commit)
+ *   ASYNC     - written to the OS, no fsync (forced on close)
+ * Since only the writer thread touches the file, records never interleave.
+ */
+public class OrderJournal implements AutoCloseable {
+
+    public enum Durability { PER_ORDER, BATCHED, ASYNC }
+
+    private static final int MAX_BATCH = 512;
+
+    private static OrderJournal shared;
+
+    /** The journal on orders.txt used by the app (-Dfurniture.orders.durability=PER_ORDER|BATCHED|ASYNC). */
+    public static synchronized OrderJournal shared() {
+        if (shared == null) {
+            Durability mode = Durability.valueOf(System.getProperty("furniture.orders.durability", "BATCHED"));
+            try {
+                shared = new OrderJournal(sharedFile(), mode);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open order log: " + e.getMessage(), e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "order-journal-close"));
+            Metrics.shared().gauge("orders.pending", shared::getPendingCount);
+            Metrics.shared().gauge("orders.written", shared::getWrittenCount);
+        }
+        return shared;
+    }
+
+    /** The log shared() writes to (-Dfurniture.orders, default orders.txt), without opening it. */
+    public static Path sharedFile() {
+        return Paths.get(System.getProperty("furniture.orders", "orders.txt"));
+    }
+
+    private static class Pending {
+        final Order order;
+        final CompletableFuture<Order> done = new CompletableFuture<>();
+
+        Pending(Order order) {
+            this.order = order;
+        }
+    }
+
+    private final Path file;
+    private final Durability durability;
+    private final FileChannel channel;
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private volatile boolean closed = false;
+
+    // ---------------- stats ----------------
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong forces = new AtomicLong();
+
+    public OrderJournal(Path file, Durability durability) throws IOException {
+        this.file = file;
+        this.durability = durability;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        writer = new Thread(this::writeLoop, "order-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Queues the order; the future completes when it is durable (or fails with the I/O error). */
+    public CompletableFuture<Order> submit(Order order) {
+        Pending p = new Pending(order);
+        if (closed) {
+            p.done.completeExceptionally(new IOException("order journal is closed"));
+            return p.done;
+        }
+        pending.incrementAndGet();
+        queue.offer(p);
+        // close() may have come between the check and the offer, and the writer may
+        // already be past its last poll: whoever takes p off the queue completes it
+        if (closed && queue.remove(p)) {
+            pending.decrementAndGet();
+            p.done.completeExceptionally(new IOException("order journal is closed"));
+            return p.done;
+        }
+        LockSupport.unpark(writer);
+        return p.done;
+    }
+
+    private void writeLoop() {
+        ArrayList<Pending> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            Pending p;
+            while (batch.size() < MAX_BATCH && (p = queue.poll()) != null) batch.add(p);
+
+            if (batch.isEmpty()) {
+                if (closed) {
+                    finish();
+                    return;
+                }
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(50));
+                continue;
+            }
+            if (durability == Durability.PER_ORDER) {
+                for (Pending one : batch) write(java.util.Collections.singletonList(one), true);
+            } else {
+                write(batch, durability == Durability.BATCHED);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(java.util.List<Pending> batch, boolean force) {
+        ShopEvents.OrderWrite event = new ShopEvents.OrderWrite();
+        event.begin();
+        long t0 = System.nanoTime();
+        long bytes = 0;
+        long start = -1;
+        boolean failed = false;
+        try {
+            start = channel.size();
+            StringBuilder sb = new StringBuilder(batch.size() * 160);
+            for (Pending p : batch) sb.append(p.order.toText());
+            ByteBuffer buf = StandardCharsets.UTF_8.encode(sb.toString());
+            bytes = buf.remaining();
+            while (buf.hasRemaining()) channel.write(buf);
+            if (force) {
+                channel.force(false);
+                forces.incrementAndGet();
+            }
+            batches.incrementAndGet();
+            written.addAndGet(batch.size());
+            pending.addAndGet(-batch.size());
+            for (Pending p : batch) p.done.complete(p.order);
+        } catch (IOException e) {
+            failed = true;
+            // cut off what made it to the file: the orders are failed and will be retried,
+            // and nothing may be appended after half a record
+            if (start >= 0) {
+                try {
+                    channel.truncate(start);
+                } catch (IOException ignored) {
+                    // the parsers skip a torn last record
+                }
+            }
+            pending.addAndGet(-batch.size());
+            for (Pending p : batch) p.done.completeExceptionally(e);
+        }
+        Metrics.shared().timer("orders.write").record(System.nanoTime() - t0);
+        if (event.shouldCommit()) {
+            event.orders = batch.size();
+            event.bytes = bytes;
+            event.forced = force;
+            event.durability = durability.name();
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    // writer thread, once closed and everything queued is written
+    private void finish() {
+        failLate();
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            // nothing more we can do at shutdown
+        }
+    }
+
+    // submitted after the writer's last look at the queue
+    private void failLate() {
+        Pending late;
+        while ((late = queue.poll()) != null) {
+            pending.decrementAndGet();
+            late.done.completeExceptionally(new IOException("order journal is closed"));
+        }
+    }
+
+    /**
+     * Writes what is queued, forces it to disk and closes the file. The file is
+     * closed by the writer itself once it is done, so a write still running
+     * when the 10 s wait here runs out is finished, not cut short.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!writer.isAlive()) failLate();
+    }
+
+    // -------------------- stats --------------------
+    public Path getFile() { return file; }
+    public Durability getDurability() { return durability; }
+    public int getPendingCount() { return pending.get(); }
+    public long getWrittenCount() { return written.get(); }
+    public long getBatchCount() { return batches.get(); }
+    public long getForceCount() { return forces.get(); }
+}
@@ -0,0 +1,44 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes a synthetic order log in the orders.txt format, orders spread over
+ * the year before now, for load tests of the tools that read the log.
+ *
+ * Usage: java -cp . OrderLogGenerator <orders> <output file> [catalog.csv]
+ */
+public class OrderLogGenerator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java OrderLogGenerator <orders> <output file> [catalog.csv]");
+            return;
+        }
+        long count = Long.parseLong(args[0]);
+        List<Product> products = Catalog.load(Paths.get(args.length > 2 ? args[2] : "catalog.csv")).all();
+        Random rnd = new Random(42);
+
+        LocalDateTime date = LocalDateTime.now().minusYears(1);
+        long stepNanos = Math.max(1, 365L * 24 * 3600 * 1_000_000_000L / Math.max(1, count));
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            for (long i = 0; i < count; i++) {
+                int lines = 1 + Math.min(rnd.nextInt(4), rnd.nextInt(4));
+                List<Order.Item> items = new ArrayList<>(lines);
+                for (int k = 0; k < lines; k++) {
+                    Product p = products.get(rnd.nextInt(products.size()));
+                    items.add(new Order.Item(p.id, p.name, p.price, rnd.nextInt(5) == 0 ? 2 + rnd.nextInt(3) : 1));
+                }
+                date = date.plusNanos(stepNanos / 2 + (long) (rnd.nextDouble() * stepNanos));
+                out.write(new Order(date, items).toText());
+            }
+        }
+        System.out.println("Wrote " + count + " orders to " + args[1]);
+    }
+}
@@ -0,0 +1,155 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Start offsets of the complete records in an order log (orders.txt), kept
+ * in a long array: 8 bytes per order, the text itself stays on disk.
+ * update() scans only the bytes appended since the previous call, so it can
+ * be called over and over to follow a growing log; a record is counted once
+ * its closing dashes are there, so a half-written one is picked up on a later
+ * call. read() fetches a run of records with one positioned read.
+ *
+ * One thread calls update(); any thread can read.
+ */
+public class OrderLogIndex implements AutoCloseable {
+
+    private static final byte[] START = OrderTextParser.START.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = OrderTextParser.END.getBytes(StandardCharsets.US_ASCII);
+
+    private final Path file;
+    private final FileChannel channel;
+    private ByteBuffer buf = ByteBuffer.allocate(1 << 20);
+
+    private long[] starts = new long[1024];
+    private int count;
+    private long lastEnd;           // end of the last complete record
+    private long scanPos;           // first byte not scanned yet (always a line start)
+    private long pendingStart = -1; // record begun but not closed
+
+    public OrderLogIndex(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /** Bytes scanned so far / current file size, for progress. */
+    public synchronized long scannedBytes() {
+        return scanPos;
+    }
+
+    public long fileSize() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Scans up to maxBytes of not yet scanned data. Returns the number of
+     * records added, or -1 if the file got shorter and the index was reset.
+     */
+    public int update(long maxBytes) throws IOException {
+        long size = channel.size();
+        synchronized (this) {
+            if (size < scanPos) {
+                count = 0;
+                lastEnd = scanPos = 0;
+                pendingStart = -1;
+                return -1;
+            }
+        }
+        int before = size();
+        long limit = size - scanPos > maxBytes ? scanPos + maxBytes : size;
+        while (scanPos < limit) {
+            buf.clear();
+            buf.limit((int) Math.min(buf.capacity(), limit - scanPos));
+            int n = channel.read(buf, scanPos);
+            if (n <= 0) break;
+            byte[] a = buf.array();
+            int lineStart = 0;
+            for (int i = 0; i < n; i++) {
+                if (a[i] != '\n') continue;
+                line(a, lineStart, i, scanPos + lineStart, scanPos + i + 1);
+                lineStart = i + 1;
+            }
+            if (lineStart == 0) {
+                if (n == buf.capacity()) { // a line longer than the buffer
+                    buf = ByteBuffer.allocate(buf.capacity() * 2);
+                    continue;
+                }
+                break; // only an unfinished line left
+            }
+            synchronized (this) {
+                scanPos += lineStart;
+            }
+        }
+        return size() - before;
+    }
+
+    private void line(byte[] a, int from, int to, long offset, long next) {
+        if (to > from && a[to - 1] == '\r') to--;
+        if (is(a, from, to, START)) {
+            pendingStart = offset;
+        } else if (is(a, from, to, END) && pendingStart >= 0) {
+            synchronized (this) {
+                if (count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+                starts[count++] = pendingStart;
+                lastEnd = next;
+            }
+            pendingStart = -1;
+        }
+    }
+
+    private static boolean is(byte[] a, int from, int to, byte[] m) {
+        if (to - from != m.length) return false;
+        for (int k = 0; k < m.length; k++) if (a[from + k] != m[k]) return false;
+        return true;
+    }
+
+    /**
+     * Records first .. first+n-1 (n is cut to what is indexed), read with one
+     * positioned read. A record that does not parse comes back as null.
+     */
+    public List<Order> read(int first, int n) throws IOException {
+        long[] offs;
+        synchronized (this) {
+            n = Math.min(n, count - first);
+            if (n <= 0) return new ArrayList<>();
+            offs = new long[n + 1];
+            System.arraycopy(starts, first, offs, 0, n);
+            offs[n] = first + n < count ? starts[first + n] : lastEnd;
+        }
+        long from = offs[0];
+        ByteBuffer bytes = ByteBuffer.allocate((int) (offs[n] - from));
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, from + bytes.position()) < 0) throw new IOException("Order log shrank while reading");
+        }
+        byte[] a = bytes.array();
+        ArrayList<Order> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int s = (int) (offs[i] - from), e = (int) (offs[i + 1] - from);
+            try {
+                out.add(OrderTextParser.parse(new String(a, s, e - s, StandardCharsets.UTF_8)));
+            } catch (IOException bad) {
+                out.add(null); // record that does not parse: the caller shows a gap, not an error
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,110 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+
+/**
+ * Reads orders back from the orders.txt format, one record at a time:
+ *
+ *   ----- NEW ORDER -----
+ *   Date: 2025-11-28T18:28:01.928632400
+ *   LED Curve Mirror - 9000 DA
+ *   Woven Table Lamp - 4000 DA x 2
+ *   Total: 17000 DA
+ *   ---------------------
+ *
+ * Item product ids are not in the text, they come back as 0.
+ */
+public class OrderTextParser implements Closeable {
+
+    static final String START = "----- NEW ORDER -----";
+    static final String END = "---------------------";
+
+    private final BufferedReader in;
+    private int lineNo = 0;
+
+    public OrderTextParser(Reader reader) {
+        this.in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /** Next order, or null at the end of the input. */
+    public Order next() throws IOException {
+        String line;
+        while ((line = readLine()) != null && !line.equals(START)) {
+            if (!line.isEmpty()) throw error("expected '" + START + "'");
+        }
+        if (line == null) return null;
+
+        LocalDateTime date = null;
+        ArrayList<Order.Item> items = new ArrayList<>();
+        long total = -1;
+        while ((line = readLine()) != null && !line.equals(END)) {
+            if (line.startsWith("Date: ")) {
+                try {
+                    date = LocalDateTime.parse(line.substring(6).trim());
+                } catch (DateTimeParseException e) {
+                    throw error("bad date");
+                }
+            } else if (line.startsWith("Total: ")) {
+                total = price(line.substring(7));
+            } else {
+                items.add(parseItem(line));
+            }
+        }
+        if (line == null) throw error("order not terminated");
+        if (date == null || total < 0) throw error("order without date or total");
+        return new Order(date, items, total);
+    }
+
+    /** Parses a single record (e.g. one read from a known file offset). */
+    public static Order parse(String record) throws IOException {
+        try (OrderTextParser p = new OrderTextParser(new java.io.StringReader(record))) {
+            return p.next();
+        }
+    }
+
+    // "name - 9000 DA" or "name - 9000 DA x 3"; the name may itself contain " - "
+    private Order.Item parseItem(String line) throws IOException {
+        int sep = line.lastIndexOf(" - ");
+        if (sep < 0) throw error("bad item line");
+        String name = line.substring(0, sep);
+        String rest = line.substring(sep + 3);
+        int quantity = 1;
+        int x = rest.lastIndexOf(" x ");
+        if (x > 0) {
+            try {
+                quantity = Integer.parseInt(rest.substring(x + 3).trim());
+            } catch (NumberFormatException e) {
+                throw error("bad quantity");
+            }
+            rest = rest.substring(0, x);
+        }
+        return new Order.Item(0, name, price(rest), quantity);
+    }
+
+    private long price(String text) throws IOException {
+        try {
+            return Product.parsePrice(text);
+        } catch (NumberFormatException e) {
+            throw error("bad amount '" + text + "'");
+        }
+    }
+
+    private String readLine() throws IOException {
+        String line = in.readLine();
+        if (line != null) lineNo++;
+        return line;
+    }
+
+    private IOException error(String msg) {
+        return new IOException("orders: line " + lineNo + ": " + msg);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
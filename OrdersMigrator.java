@@ -0,0 +1,91 @@
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/**
+ * One-shot import of an orders.txt log into a BinaryOrderStore. Product ids
+ * are looked up by name in the catalog; names the catalog does not know keep
+ * their own ids in the store's dictionary. After the import every record is
+ * read back and turned into text again, which must give the original file
+ * byte for byte, otherwise the new store is deleted.
+ *
+ * Usage: java -cp . OrdersMigrator [orders.txt] [store base name] [catalog.csv]
+ */
+public class OrdersMigrator {
+
+    public static void main(String[] args) throws Exception {
+        Path source = Paths.get(args.length > 0 ? args[0] : "orders.txt");
+        Path base = Paths.get(args.length > 1 ? args[1] : "orders");
+        Catalog catalog = Catalog.load(Paths.get(args.length > 2 ? args[2] : "catalog.csv"));
+
+        if (Files.exists(Paths.get(base + ".bin"))) {
+            System.err.println(base + ".bin already exists, not migrating twice.");
+            System.exit(1);
+        }
+
+        long t0 = System.nanoTime();
+        int orders = 0, items = 0, unknown = 0;
+        try (OrderTextParser parser = new OrderTextParser(Files.newBufferedReader(source, StandardCharsets.UTF_8));
+             BinaryOrderStore store = new BinaryOrderStore(base)) {
+            Order o;
+            while ((o = parser.next()) != null) {
+                ArrayList<Order.Item> resolved = new ArrayList<>(o.items.size());
+                for (Order.Item i : o.items) {
+                    Product p = catalog.byName(i.name);
+                    if (p == null) unknown++;
+                    resolved.add(new Order.Item(p != null ? p.id : 0, i.name, i.unitPrice, i.quantity));
+                }
+                store.append(new Order(o.date, resolved, o.total));
+                orders++;
+                items += resolved.size();
+            }
+            store.force();
+        }
+        long importMs = (System.nanoTime() - t0) / 1_000_000;
+
+        String mismatch = verify(source, base);
+        if (mismatch != null) {
+            for (String ext : new String[]{".bin", ".idx", ".dict"}) Files.deleteIfExists(Paths.get(base + ext));
+            System.err.println("Migration is not lossless, store removed: " + mismatch);
+            System.exit(2);
+        }
+
+        System.out.printf("Imported %d orders (%d item lines, %d not in the catalog) in %d ms%n", orders, items, unknown, importMs);
+        System.out.printf("%s: %d bytes -> %s.bin %d bytes + %s.idx %d bytes%n", source, Files.size(source),
+                base, Files.size(Paths.get(base + ".bin")), base, Files.size(Paths.get(base + ".idx")));
+    }
+
+    // regenerates the text from the store record by record and compares it with the
+    // source as it is read: neither log is held in memory (sources run to gigabytes)
+    private static String verify(Path source, Path base) throws IOException {
+        try (PushbackReader in = new PushbackReader(Files.newBufferedReader(source, StandardCharsets.UTF_8));
+             BinaryOrderStore store = new BinaryOrderStore(base)) {
+            long line = 1;
+            for (long id = 1; id <= store.count(); id++) {
+                String text = store.get(id).order.toText();
+                for (int i = 0; i < text.length(); i++) {
+                    int c = next(in);
+                    if (c != text.charAt(i)) return "first difference on line " + line + " of " + source;
+                    if (c == '\n') line++;
+                }
+            }
+            if (next(in) != -1) return "first difference on line " + line + " of " + source;
+        }
+        return null;
+    }
+
+    // next char of the source, with \r\n read as \n
+    private static int next(PushbackReader in) throws IOException {
+        int c = in.read();
+        if (c == '\r') {
+            int n = in.read();
+            if (n == '\n') return '\n';
+            if (n != -1) in.unread(n);
+        }
+        return c;
+    }
+}
@@ -0,0 +1,360 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Outgoing contact messages. enqueue() only puts the message on a lock-free
+ * queue and wakes the outbox thread, which
+ *   1. appends new messages to a spool file (outbox/spool.log) and fsyncs it,
+ *   2. hands pending messages to the Transport in batches,
+ *   3. appends an ack for each delivered message,
+ * and on a failed batch waits with exponential backoff (plus jitter) before
+ * trying again. Messages spooled but never acked are sent again after a
+ * restart; a message is only lost if the process dies before it is spooled
+ * (a few milliseconds after enqueue). The spool is emptied once everything
+ * in it has been acked, keeping only the next id so ids are never reused.
+ * If the spool cannot be opened the thread keeps retrying with the same
+ * backoff, messages waiting in memory meanwhile; a transport that cannot be
+ * created is retried like a failed send, its messages already spooled.
+ *
+ * Spool lines: M \t id \t created \t name \t email \t subject \t body  /  A \t id
+ * / N \t next id (tabs, newlines and backslashes in fields are escaped).
+ */
+public class Outbox implements AutoCloseable {
+
+    /** Delivers messages; throwing means none of the batch counts as sent. */
+    public interface Transport {
+        void send(List<Envelope> batch) throws IOException;
+    }
+
+    /** A spooled message with its outbox id. */
+    public static class Envelope {
+        final long id;
+        final ContactMessage message;
+
+        Envelope(long id, ContactMessage message) {
+            this.id = id;
+            this.message = message;
+        }
+    }
+
+    private static final int BATCH = 50;
+    private static final long BACKOFF_START_MS = 500;
+    private static final long BACKOFF_MAX_MS = 60_000;
+    private static final long COMPACT_BYTES = 1 << 20;
+
+    private static Outbox shared;
+
+    /** The outbox of the contact form: spool in -Dfurniture.outbox.dir (default outbox), .eml files in its drop/ folder. */
+    public static synchronized Outbox shared() {
+        if (shared == null) {
+            Path dir = Paths.get(System.getProperty("furniture.outbox.dir", "outbox"));
+            shared = new Outbox(dir, () -> new FileDropTransport(dir.resolve("drop"),
+                    System.getProperty("furniture.outbox.to", "contact@furniture.local")));
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "outbox-close"));
+            Metrics.shared().gauge("outbox.depth", shared::getDepth);
+        }
+        return shared;
+    }
+
+    /** Creates the transport on the outbox thread (so its setup I/O stays off the caller). */
+    public interface TransportFactory {
+        Transport create() throws IOException;
+    }
+
+    private final Path dir;
+    private final TransportFactory transportFactory;
+    private final ConcurrentLinkedQueue<ContactMessage> incoming = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean closed = false;
+
+    // outbox thread only
+    private Transport transport;
+    private FileChannel spool;
+    private final ArrayDeque<Envelope> pending = new ArrayDeque<>();
+    private final ArrayList<Envelope> unspooled = new ArrayList<>(); // taken from incoming, spool write failed
+    private long nextId = 1;
+    private long backoffMs = 0;
+    private long retryAt = 0; // System.nanoTime() before which no send is tried
+
+    // ---------------- stats ----------------
+    private final AtomicInteger depth = new AtomicInteger();      // enqueued, not yet delivered
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final LatencyHistogram drainLatency = new LatencyHistogram(); // enqueue -> delivered
+    private volatile String lastError;
+
+    public Outbox(Path dir, TransportFactory transportFactory) {
+        this.dir = dir;
+        this.transportFactory = transportFactory;
+        thread = new Thread(this::run, "outbox");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Queues the message for sending; no I/O on the caller's thread. */
+    public void enqueue(ContactMessage m) {
+        if (closed) throw new IllegalStateException("outbox is closed");
+        depth.incrementAndGet();
+        enqueued.incrementAndGet();
+        incoming.offer(m);
+        LockSupport.unpark(thread);
+    }
+
+    // -------------------- outbox thread --------------------
+    private void run() {
+        while (!open()) {
+            if (closed) {
+                if (depth.get() > 0) System.err.println("Outbox: " + depth.get() + " message(s) never saved, " + lastError);
+                return;
+            }
+            backOff();
+            while (!closed && System.nanoTime() < retryAt) LockSupport.parkNanos(this, retryAt - System.nanoTime());
+        }
+        backoffMs = 0;
+        retryAt = 0;
+        lastError = null;
+        while (true) {
+            try {
+                spoolIncoming();
+                if (!pending.isEmpty() && System.nanoTime() >= retryAt) {
+                    if (transport == null) transport = createTransport();
+                    sendBatch();
+                }
+                compactIfDone();
+            } catch (IOException e) {
+                lastError = e.getMessage();
+                backOff();
+            }
+            boolean idle = incoming.isEmpty()
+                    && (pending.isEmpty() && unspooled.isEmpty() || System.nanoTime() < retryAt);
+            if (closed && idle) break;
+            if (idle) {
+                long wait = pending.isEmpty() ? TimeUnit.MILLISECONDS.toNanos(200) : retryAt - System.nanoTime();
+                LockSupport.parkNanos(this, Math.max(1, wait));
+            }
+        }
+        try {
+            spool.force(false);
+            spool.close();
+        } catch (IOException e) {
+            // nothing more to do at shutdown
+        }
+    }
+
+    // the spool; false after setting lastError (the transport is made when first needed)
+    private boolean open() {
+        try {
+            Files.createDirectories(dir);
+            recover();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            lastError = "cannot open outbox: " + e.getMessage();
+            return false;
+        }
+    }
+
+    // reads the spool back: every message without an ack is pending again
+    private void recover() throws IOException {
+        Path file = dir.resolve("spool.log");
+        LinkedHashMap<Long, Envelope> open = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String[] f = line.split("\t", -1);
+                    try {
+                        if (f[0].equals("M") && f.length == 7) {
+                            long id = Long.parseLong(f[1]);
+                            open.put(id, new Envelope(id, new ContactMessage(unescape(f[3]), unescape(f[4]),
+                                    unescape(f[5]), unescape(f[6]), Long.parseLong(f[2]))));
+                            nextId = Math.max(nextId, id + 1);
+                        } else if (f[0].equals("A") && f.length == 2) {
+                            open.remove(Long.parseLong(f[1]));
+                        } else if (f[0].equals("N") && f.length == 2) {
+                            nextId = Math.max(nextId, Long.parseLong(f[1]));
+                        }
+                    } catch (NumberFormatException e) {
+                        // torn last line: skip it
+                    }
+                }
+            }
+        }
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        pending.addAll(open.values());
+        depth.addAndGet(open.size());
+        spool = ch;
+    }
+
+    // a message only becomes pending once it is in the spool; if the write fails it
+    // stays in `unspooled` and is written again on the next round (after a back-off)
+    private void spoolIncoming() throws IOException {
+        ContactMessage m;
+        while ((m = incoming.poll()) != null) unspooled.add(new Envelope(nextId++, m));
+        if (unspooled.isEmpty()) return;
+        StringBuilder sb = new StringBuilder(512);
+        for (Envelope e : unspooled) {
+            m = e.message;
+            sb.append("M\t").append(e.id).append('\t').append(m.createdMillis).append('\t')
+                    .append(escape(m.name)).append('\t').append(escape(m.email)).append('\t')
+                    .append(escape(m.subject)).append('\t').append(escape(m.body)).append('\n');
+        }
+        append(sb);
+        pending.addAll(unspooled);
+        unspooled.clear();
+    }
+
+    private Transport createTransport() throws IOException {
+        try {
+            return transportFactory.create();
+        } catch (IOException | RuntimeException e) {
+            throw new IOException("cannot create transport: " + e.getMessage(), e);
+        }
+    }
+
+    private void sendBatch() throws IOException {
+        ArrayList<Envelope> batch = new ArrayList<>(Math.min(BATCH, pending.size()));
+        for (Envelope e : pending) {
+            if (batch.size() == BATCH) break;
+            batch.add(e);
+        }
+        try {
+            transport.send(batch);
+        } catch (IOException | RuntimeException e) {
+            failedAttempts.incrementAndGet();
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+        StringBuilder acks = new StringBuilder(batch.size() * 12);
+        long now = System.currentTimeMillis();
+        for (Envelope e : batch) {
+            acks.append("A\t").append(e.id).append('\n');
+            drainLatency.record(TimeUnit.MILLISECONDS.toNanos(Math.max(0, now - e.message.createdMillis)));
+        }
+        append(acks);
+        for (int i = 0; i < batch.size(); i++) pending.poll();
+        delivered.addAndGet(batch.size());
+        depth.addAndGet(-batch.size());
+        backoffMs = 0;
+        retryAt = 0;
+        lastError = null;
+    }
+
+    private void backOff() {
+        backoffMs = backoffMs == 0 ? BACKOFF_START_MS : Math.min(BACKOFF_MAX_MS, backoffMs * 2);
+        long jitter = ThreadLocalRandom.current().nextLong(backoffMs / 4 + 1);
+        retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs + jitter);
+    }
+
+    // the spool is replaced by one holding only the next id: a restart must not hand out
+    // ids again (the transport names its files after them)
+    private void compactIfDone() throws IOException {
+        if (pending.isEmpty() && unspooled.isEmpty() && incoming.isEmpty() && spool.size() > COMPACT_BYTES) {
+            Path file = dir.resolve("spool.log");
+            Path tmp = dir.resolve("spool.log.tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = StandardCharsets.UTF_8.encode("N\t" + nextId + "\n");
+                while (buf.hasRemaining()) ch.write(buf);
+                ch.force(false);
+            }
+            spool.close();
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                spool = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+        }
+    }
+
+    // all or nothing: a failed write is cut off again so no torn line stays in the spool
+    private void append(CharSequence text) throws IOException {
+        ByteBuffer buf = StandardCharsets.UTF_8.encode(text.toString());
+        long start = spool.size();
+        try {
+            while (buf.hasRemaining()) spool.write(buf);
+            spool.force(false);
+        } catch (IOException e) {
+            try {
+                spool.truncate(start);
+            } catch (IOException ignored) {
+                // recover() skips a torn last line anyway
+            }
+            throw e;
+        }
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String s) {
+        if (s.indexOf('\\') < 0) return s;
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != '\\' || i + 1 == s.length()) {
+                sb.append(c);
+                continue;
+            }
+            char n = s.charAt(++i);
+            sb.append(n == 't' ? '\t' : n == 'n' ? '\n' : n == 'r' ? '\r' : n);
+        }
+        return sb.toString();
+    }
+
+    /** Stops after spooling what was enqueued and one last send attempt if one is due. */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------------------- stats --------------------
+    public int getDepth() { return depth.get(); }
+    public long getEnqueuedCount() { return enqueued.get(); }
+    public long getDeliveredCount() { return delivered.get(); }
+    public long getFailedAttempts() { return failedAttempts.get(); }
+    public LatencyHistogram getDrainLatency() { return drainLatency; }
+    public String getLastError() { return lastError; }
+
+    public String statsLine() {
+        return String.format("outbox: depth=%d enqueued=%d delivered=%d failedAttempts=%d drain %s%s",
+                getDepth(), getEnqueuedCount(), getDeliveredCount(), getFailedAttempts(), drainLatency.summary(),
+                lastError == null ? "" : " lastError=" + lastError);
+    }
+}
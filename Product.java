@@ -0,0 +1,49 @@
+/**
+ * A catalog product. Prices are kept in minor units (centimes), so
+ * 15000 DA is stored as 1500000.
+ */
+public class Product {
+
+    final int id;
+    final String name;
+    final String category;
+    final long price;     // minor units
+    final String imgName;
+
+    public Product(int id, String name, String category, long price, String imgName) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.price = price;
+        this.imgName = imgName;
+    }
+
+    /** Price as shown to customers, e.g. "15000 DA". */
+    public String displayPrice() {
+        return formatPrice(price);
+    }
+
+    /** Formats an amount in minor units: 1500000 -> "15000 DA", 150050 -> "1500.50 DA". */
+    public static String formatPrice(long minor) {
+        long units = minor / 100;
+        long cents = Math.abs(minor % 100);
+        if (cents == 0) return units + " DA";
+        return units + "." + (cents < 10 ? "0" : "") + cents + " DA";
+    }
+
+    /** Parses "15000 DA" / "1500.50 DA" back to minor units. */
+    public static long parsePrice(String text) {
+        String s = text.trim();
+        if (s.endsWith("DA")) s = s.substring(0, s.length() - 2).trim();
+        int dot = s.indexOf('.');
+        if (dot < 0) return Long.parseLong(s) * 100;
+        String frac = (s.substring(dot + 1) + "00").substring(0, 2);
+        long units = dot == 0 ? 0 : Long.parseLong(s.substring(0, dot));
+        return units * 100 + Long.parseLong(frac);
+    }
+
+    @Override
+    public String toString() {
+        return name + " - " + displayPrice();
+    }
+}
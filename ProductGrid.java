@@ -0,0 +1,242 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+
+/**
+ * Virtualized product grid: a JList in wrap mode with one shared cell renderer,
+ * so only the visible cells are painted and no per-product components exist.
+ * Thumbnails are requested only when a cell is actually painted, and only
+ * ImageCache holds them, so memory stays within its budget however far the
+ * grid is scrolled.
+ * Paint times are recorded so scrolling smoothness can be checked (see frameStats()).
+ */
+@SuppressWarnings("serial")
+public class ProductGrid extends JList<Product> {
+
+    static final int CELL_W = 250;
+    static final int CELL_H = 320;
+    static final int IMG_W = 220;
+    static final int IMG_H = 180;
+
+    private final Consumer<Product> onAddToCart;
+    private final Renderer renderer = new Renderer();
+    private int hoverIndex = -1;
+
+    // ---------------- frame timing (ring buffer of the last paints) ----------------
+    private final long[] frameNanos = new long[256];
+    private int frameCount = 0;
+
+    public ProductGrid(List<Product> products, Consumer<Product> onAddToCart) {
+        super(new ProductListModel(products));
+        this.onAddToCart = onAddToCart;
+
+        setLayoutOrientation(JList.HORIZONTAL_WRAP);
+        setVisibleRowCount(-1);
+        setFixedCellWidth(CELL_W);
+        setFixedCellHeight(CELL_H);
+        setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        setCellRenderer(renderer);
+
+        java.awt.event.MouseAdapter mouse = new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int i = cellAt(e.getPoint());
+                if (i < 0) return;
+                Rectangle cell = getCellBounds(i, i);
+                if (renderer.buttonBounds(i, cell).contains(e.getPoint())) {
+                    onAddToCart.accept(getModel().getElementAt(i));
+                }
+            }
+            public void mouseMoved(java.awt.event.MouseEvent e) {
+                setHover(cellAt(e.getPoint()));
+            }
+            public void mouseExited(java.awt.event.MouseEvent e) {
+                setHover(-1);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    public void setProducts(List<Product> products) {
+        setModel(new ProductListModel(products));
+    }
+
+    // locationToIndex returns the closest cell, we only want a hit
+    private int cellAt(Point p) {
+        int i = locationToIndex(p);
+        if (i < 0) return -1;
+        Rectangle r = getCellBounds(i, i);
+        return r != null && r.contains(p) ? i : -1;
+    }
+
+    private void setHover(int i) {
+        if (i == hoverIndex) return;
+        int old = hoverIndex;
+        hoverIndex = i;
+        repaintCell(old);
+        repaintCell(i);
+        setCursor(Cursor.getPredefinedCursor(i >= 0 ? Cursor.HAND_CURSOR : Cursor.DEFAULT_CURSOR));
+    }
+
+    private void repaintCell(int i) {
+        if (i < 0 || i >= getModel().getSize()) return;
+        Rectangle r = getCellBounds(i, i);
+        if (r != null) repaint(r);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        super.paintComponent(g);
+        frameNanos[frameCount++ % frameNanos.length] = System.nanoTime() - start;
+    }
+
+    /** avg / p95 / max paint time over the last frames, e.g. for a status bar. */
+    public String frameStats() {
+        int n = Math.min(frameCount, frameNanos.length);
+        if (n == 0) return "no frames yet";
+        long[] copy = java.util.Arrays.copyOf(frameNanos, n);
+        java.util.Arrays.sort(copy);
+        long sum = 0;
+        for (long v : copy) sum += v;
+        return String.format("frames=%d  avg=%.2f ms  p95=%.2f ms  max=%.2f ms",
+                frameCount, sum / 1e6 / n, copy[Math.min(n - 1, (int) (n * 0.95))] / 1e6, copy[n - 1] / 1e6);
+    }
+
+    // -------------------- model --------------------
+    // wraps the catalog list as is: no copy per view
+    @SuppressWarnings("serial")
+    static class ProductListModel extends AbstractListModel<Product> {
+        private final List<Product> products;
+
+        ProductListModel(List<Product> products) {
+            this.products = products;
+        }
+
+        public int getSize() {
+            return products.size();
+        }
+
+        public Product getElementAt(int index) {
+            return products.get(index);
+        }
+    }
+
+    // -------------------- renderer --------------------
+    @SuppressWarnings("serial")
+    private class Renderer extends JPanel implements ListCellRenderer<Product> {
+        private final JLabel img = new JLabel();
+        private final JLabel name = new JLabel("", SwingConstants.CENTER);
+        private final JLabel price = new JLabel("", SwingConstants.CENTER);
+        private final JButton add = new JButton("Add to Cart");
+        private final ImageIcon placeholder;
+        private final ThumbIcon thumbIcon = new ThumbIcon();
+        // loads in flight (entries leave when the load is done, whatever its outcome)
+        private final Set<String> requested = ConcurrentHashMap.newKeySet();
+        private Theme theme;
+
+        Renderer() {
+            setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+
+            BufferedImage bi = new BufferedImage(IMG_W, IMG_H, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2 = bi.createGraphics();
+            g2.setPaint(Color.LIGHT_GRAY);
+            g2.fillRect(0, 0, IMG_W, IMG_H);
+            g2.dispose();
+            placeholder = new ImageIcon(bi);
+
+            img.setAlignmentX(Component.CENTER_ALIGNMENT);
+            img.setBorder(new EmptyBorder(8, 0, 0, 0));
+            name.setAlignmentX(Component.CENTER_ALIGNMENT);
+            name.setBorder(new EmptyBorder(10, 0, 5, 0));
+            price.setAlignmentX(Component.CENTER_ALIGNMENT);
+            add.setFocusPainted(false);
+            add.setOpaque(true);
+            add.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+            add(img);
+            add(name);
+            add(price);
+            add(Box.createVerticalStrut(5));
+            add(add);
+            applyTheme(Theme.current());
+        }
+
+        // the cell only follows a theme change on its next paint
+        private void applyTheme(Theme t) {
+            theme = t;
+            setBackground(t.background);
+            ProductGrid.this.setBackground(t.background);
+            name.setFont(t.cardTitle);
+            name.setForeground(t.text);
+            price.setFont(t.cardText);
+            price.setForeground(t.primary);
+            add.setBackground(t.primary);
+            add.setForeground(t.onPrimary);
+            add.setFont(t.body);
+            add.setBorder(t.button);
+        }
+
+        public Component getListCellRendererComponent(JList<? extends Product> list, Product p,
+                                                      int index, boolean selected, boolean focused) {
+            if (theme != Theme.current()) applyTheme(Theme.current());
+            // the cell is painted right after this call, so one icon object does for all cells
+            BufferedImage thumb = ImageCache.shared().peek(p.imgName, IMG_W, IMG_H);
+            if (thumb != null) {
+                thumbIcon.image = thumb;
+                img.setIcon(thumbIcon);
+            } else {
+                img.setIcon(placeholder);
+                requestThumbnail(p.imgName);
+            }
+            name.setText(p.name);
+            price.setText(p.displayPrice());
+            setBorder(index == hoverIndex || selected ? theme.gridCellHover : theme.gridCell);
+            return this;
+        }
+
+        // where the "Add to Cart" button ends up when cell i is painted in the given bounds
+        Rectangle buttonBounds(int i, Rectangle cell) {
+            getListCellRendererComponent(ProductGrid.this, getModel().getElementAt(i), i, false, false);
+            setBounds(0, 0, cell.width, cell.height);
+            doLayout();
+            Rectangle b = add.getBounds();
+            b.translate(cell.x, cell.y);
+            return b;
+        }
+
+        // one background load per file at a time; the grid repaints when it arrives
+        private void requestThumbnail(String fileName) {
+            if (!requested.add(fileName)) return;
+            AsyncImageLoader.shared().submit(ProductGrid.this, () -> {
+                try {
+                    return ImageCache.shared().get(fileName, IMG_W, IMG_H);
+                } finally {
+                    requested.remove(fileName);
+                }
+            }, bi -> ProductGrid.this.repaint());
+        }
+    }
+
+    // the thumbnail of the cell being painted (only the last one stays referenced)
+    private static class ThumbIcon implements Icon {
+        BufferedImage image;
+
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            if (image != null) g.drawImage(image, x, y, null);
+        }
+
+        public int getIconWidth() {
+            return image != null ? image.getWidth() : IMG_W;
+        }
+
+        public int getIconHeight() {
+            return image != null ? image.getHeight() : IMG_H;
+        }
+    }
+}
@@ -0,0 +1,471 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sales figures from the order log (orders.txt, as written by OrderJournal),
+ * without loading it. The file is cut into chunks that start on a
+ * "----- NEW ORDER -----" line; a fork-join task parses each chunk straight
+ * from its bytes with a fixed read buffer and sums into primitive-keyed maps
+ * (revenue, units and orders per product, per day, per product and day, per
+ * basket size), then the partial results are merged pairwise.
+ * Memory grows with the number of distinct products and days, not with the
+ * size of the log.
+ *
+ * Usage: java -cp . SalesAnalytics [orders.txt] [--threads N] [--top N] [--days N]
+ *                                  [--month YYYY-MM] [--product-day]
+ */
+public class SalesAnalytics {
+
+    static final byte[] START = OrderTextParser.START.getBytes(StandardCharsets.US_ASCII);
+    private static final int BUFFER = 1 << 20;
+    private static final long MIN_CHUNK = 1 << 20;
+
+    public static void main(String[] args) throws Exception {
+        String file = "orders.txt";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int top = 10, days = 31;
+        YearMonth month = null;
+        boolean productDay = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--top": top = Integer.parseInt(args[++i]); break;
+                case "--days": days = Integer.parseInt(args[++i]); break;
+                case "--month": month = YearMonth.parse(args[++i]); break;
+                case "--product-day": productDay = true; break;
+                default: file = args[i];
+            }
+        }
+
+        SalesAnalytics analytics = new SalesAnalytics();
+        long t0 = System.nanoTime();
+        Totals t = analytics.run(Paths.get(file), threads);
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("%s: %.1f MB, %d orders, %d item lines, %d units, revenue %s%n",
+                file, t.bytes / 1e6, t.orders, t.lines, t.units, Product.formatPrice(t.revenue));
+        System.out.printf("%d chunks on %d threads in %.2f s (%.0f MB/s)%s%n", t.chunks, threads, secs,
+                t.bytes / 1e6 / secs, t.malformed > 0 ? ", " + t.malformed + " malformed lines skipped" : "");
+
+        if (productDay) {
+            System.out.println("day;product;units;revenue");
+            t.byProductDay.forEach((key, revenue, units, orders) ->
+                    System.out.println(LocalDate.ofEpochDay(key >> 32) + ";" + analytics.name((int) key) + ";"
+                            + units + ";" + Product.formatPrice(revenue)));
+            return;
+        }
+
+        // top sellers, overall or for one month (summed from the per-day figures)
+        LongStats ranking = t.byProduct;
+        String title = "Top " + top + " products by revenue";
+        if (month != null) {
+            long first = month.atDay(1).toEpochDay(), last = month.atEndOfMonth().toEpochDay();
+            LongStats inMonth = new LongStats();
+            t.byProductDay.forEach((key, revenue, units, orders) -> {
+                long day = key >> 32;
+                if (day >= first && day <= last) inMonth.add((int) key, revenue, units, orders);
+            });
+            ranking = inMonth;
+            title += " in " + month;
+        }
+        System.out.println();
+        System.out.println(title);
+        System.out.printf("  %-40s %10s %16s%n", "product", "units", "revenue");
+        for (long key : ranking.keysBy(0, top)) {
+            System.out.printf("  %-40s %10d %16s%n", analytics.name((int) key), ranking.get(key, 1),
+                    Product.formatPrice(ranking.get(key, 0)));
+        }
+
+        System.out.println();
+        System.out.println("Revenue per day (last " + days + " days with orders)");
+        long[] dayKeys = t.byDay.keys();
+        Arrays.sort(dayKeys);
+        for (int i = Math.max(0, dayKeys.length - days); i < dayKeys.length; i++) {
+            long d = dayKeys[i];
+            System.out.printf("  %s %8d orders %16s%n", LocalDate.ofEpochDay(d), t.byDay.get(d, 2),
+                    Product.formatPrice(t.byDay.get(d, 0)));
+        }
+
+        System.out.println();
+        System.out.println("Basket size (units per order)");
+        long[] sizes = t.byBasket.keys();
+        Arrays.sort(sizes);
+        for (long s : sizes) {
+            long orders = t.byBasket.get(s, 2);
+            System.out.printf("  %4d %10d orders %16s avg%n", s, orders, Product.formatPrice(t.byBasket.get(s, 0) / orders));
+        }
+    }
+
+    // product names get dense ids as they are first seen, shared by all tasks
+    private final ConcurrentHashMap<String, Integer> productIds = new ConcurrentHashMap<>();
+    private final List<String> productNames = java.util.Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    int productId(String name) {
+        return productIds.computeIfAbsent(name, n -> {
+            synchronized (productNames) {
+                productNames.add(n);
+                return nextId.getAndIncrement();
+            }
+        });
+    }
+
+    String name(int id) {
+        return productNames.get(id);
+    }
+
+    /** Aggregates the whole log on a pool of the given size. */
+    public Totals run(Path file, int threads) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunks(ch, threads * 4);
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                Totals t = pool.invoke(new ChunkTask(ch, bounds, 0, bounds.length - 1));
+                t.chunks = bounds.length - 1;
+                return t;
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // chunk boundaries: about `wanted` equal parts, each moved forward to the next record start
+    static long[] chunks(FileChannel ch, int wanted) throws IOException {
+        long size = ch.size();
+        int n = (int) Math.max(1, Math.min(wanted, size / MIN_CHUNK));
+        long[] bounds = new long[n + 1];
+        int count = 1; // bounds[0] = 0
+        for (int i = 1; i < n; i++) {
+            long b = nextRecord(ch, i * size / n);
+            if (b > bounds[count - 1] && b < size) bounds[count++] = b;
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    // offset of the first START line at or after pos (or the file size)
+    private static long nextRecord(FileChannel ch, long pos) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+        long base = Math.max(0, pos - 1); // include the byte before pos to see a '\n'
+        while (base < ch.size()) {
+            buf.clear();
+            int n = ch.read(buf, base);
+            if (n <= 0) break;
+            byte[] a = buf.array();
+            for (int i = 0; i + START.length < n; i++) {
+                if (a[i] == '\n' && matches(a, i + 1, START)) return base + i + 1;
+            }
+            if (n <= START.length + 1) break;
+            base += n - START.length - 1; // overlap so a marker across windows is seen
+        }
+        return ch.size();
+    }
+
+    private static boolean matches(byte[] a, int off, byte[] m) {
+        for (int k = 0; k < m.length; k++) if (a[off + k] != m[k]) return false;
+        return true;
+    }
+
+    // -------------------- fork-join --------------------
+    @SuppressWarnings("serial")
+    private class ChunkTask extends RecursiveTask<Totals> {
+        private final FileChannel ch;
+        private final long[] bounds;
+        private final int lo, hi; // chunk indexes [lo, hi)
+
+        ChunkTask(FileChannel ch, long[] bounds, int lo, int hi) {
+            this.ch = ch;
+            this.bounds = bounds;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (hi - lo == 1) {
+                try {
+                    return new ChunkParser().parse(ch, bounds[lo], bounds[hi]);
+                } catch (IOException e) {
+                    throw new java.io.UncheckedIOException(e);
+                }
+            }
+            int mid = (lo + hi) >>> 1;
+            ChunkTask left = new ChunkTask(ch, bounds, lo, mid);
+            left.fork();
+            Totals right = new ChunkTask(ch, bounds, mid, hi).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // -------------------- parsing one chunk --------------------
+    private class ChunkParser {
+        final Totals t = new Totals();
+        final HashMap<String, Integer> localIds = new HashMap<>(); // saves trips to the shared map
+        long day = -1;
+        long orderUnits, orderTotal;
+        boolean inOrder;
+
+        Totals parse(FileChannel ch, long from, long to) throws IOException {
+            t.bytes = to - from;
+            ByteBuffer buf = ByteBuffer.allocate(BUFFER);
+            long pos = from;
+            while (pos < to) {
+                int want = (int) Math.min(buf.remaining(), to - pos);
+                ByteBuffer slice = buf.duplicate();
+                slice.limit(buf.position() + want);
+                int n = ch.read(slice, pos);
+                if (n <= 0) break;
+                pos += n;
+                buf.position(buf.position() + n);
+
+                byte[] a = buf.array();
+                int end = buf.position(), start = 0;
+                for (int i = 0; i < end; i++) {
+                    if (a[i] == '\n') {
+                        line(a, start, i);
+                        start = i + 1;
+                    }
+                }
+                if (start == 0 && end == buf.capacity()) { // a line longer than the buffer
+                    buf = ByteBuffer.allocate(buf.capacity() * 2).put(a, 0, end);
+                    continue;
+                }
+                System.arraycopy(a, start, a, 0, end - start);
+                buf.position(end - start);
+            }
+            if (buf.position() > 0) line(buf.array(), 0, buf.position()); // last line without '\n'
+            return t;
+        }
+
+        void line(byte[] a, int from, int to) {
+            if (to > from && a[to - 1] == '\r') to--;
+            int len = to - from;
+            if (len == 0) return;
+            if (a[from] == '-' && len > 5 && a[from + 5] == ' ') { // ----- NEW ORDER -----
+                inOrder = true;
+                day = -1;
+                orderUnits = orderTotal = 0;
+            } else if (a[from] == '-') { // --------------------- closes the record
+                if (!inOrder) return;
+                inOrder = false;
+                t.orders++;
+                t.revenue += orderTotal;
+                if (day >= 0) t.byDay.add(day, orderTotal, orderUnits, 1);
+                t.byBasket.add(orderUnits, orderTotal, orderUnits, 1);
+            } else if (startsWith(a, from, to, "Date: ") && len >= 16) {
+                day = epochDay(a, from + 6);
+            } else if (startsWith(a, from, to, "Total: ")) {
+                orderTotal = amount(a, from + 7, to);
+            } else if (inOrder) {
+                item(a, from, to);
+            } else {
+                t.malformed++;
+            }
+        }
+
+        // "name - 9000 DA" or "name - 9000.50 DA x 3"
+        void item(byte[] a, int from, int to) {
+            int sep = -1;
+            for (int i = to - 3; i > from; i--) {
+                if (a[i] == ' ' && a[i + 1] == '-' && a[i + 2] == ' ') {
+                    sep = i;
+                    break;
+                }
+            }
+            long price = sep < 0 ? -1 : amount(a, sep + 3, to);
+            if (price < 0) {
+                t.malformed++;
+                return;
+            }
+            long qty = 1;
+            for (int i = to - 1; i > sep + 3; i--) {
+                if (a[i] == 'x' && a[i - 1] == ' ') {
+                    qty = digits(a, i + 2, to);
+                    break;
+                }
+            }
+            String name = new String(a, from, sep - from, StandardCharsets.UTF_8);
+            Integer id = localIds.get(name);
+            if (id == null) {
+                id = productId(name);
+                localIds.put(name, id);
+            }
+            long revenue = price * qty;
+            t.lines++;
+            t.units += qty;
+            orderUnits += qty;
+            t.byProduct.add(id, revenue, qty, 1);
+            if (day >= 0) t.byProductDay.add((day << 32) | id, revenue, qty, 1);
+        }
+    }
+
+    private static boolean startsWith(byte[] a, int from, int to, String prefix) {
+        if (to - from < prefix.length()) return false;
+        for (int k = 0; k < prefix.length(); k++) if (a[from + k] != prefix.charAt(k)) return false;
+        return true;
+    }
+
+    // "2025-11-28" at off -> epoch day
+    private static long epochDay(byte[] a, int off) {
+        int y = (int) digits(a, off, off + 4);
+        int m = (int) digits(a, off + 5, off + 7);
+        int d = (int) digits(a, off + 8, off + 10);
+        if (y < 0 || m < 1 || m > 12 || d < 1 || d > 31) return -1;
+        return LocalDate.of(y, m, Math.min(d, YearMonth.of(y, m).lengthOfMonth())).toEpochDay();
+    }
+
+    // "9000 DA" / "9000.5 DA" (anything after the number is ignored) -> minor units, -1 if no number
+    private static long amount(byte[] a, int from, int to) {
+        long units = 0, cents = 0;
+        int i = from, n = 0;
+        for (; i < to && a[i] >= '0' && a[i] <= '9'; i++, n++) units = units * 10 + (a[i] - '0');
+        if (i < to && a[i] == '.') {
+            i++;
+            for (int k = 0; k < 2; k++, i++) cents = cents * 10 + (i < to && a[i] >= '0' && a[i] <= '9' ? a[i] - '0' : 0);
+        }
+        return n == 0 ? -1 : units * 100 + cents;
+    }
+
+    private static long digits(byte[] a, int from, int to) {
+        long v = 0;
+        int i = from;
+        for (; i < to && a[i] >= '0' && a[i] <= '9'; i++) v = v * 10 + (a[i] - '0');
+        return i == from ? -1 : v;
+    }
+
+    // -------------------- accumulators --------------------
+
+    /** Partial (then final) results of one or more chunks. */
+    public static class Totals {
+        long bytes, orders, lines, units, revenue, malformed;
+        int chunks;
+        final LongStats byProduct = new LongStats();
+        final LongStats byDay = new LongStats();
+        final LongStats byProductDay = new LongStats(); // key: day << 32 | product
+        final LongStats byBasket = new LongStats();
+
+        Totals merge(Totals o) {
+            bytes += o.bytes;
+            orders += o.orders;
+            lines += o.lines;
+            units += o.units;
+            revenue += o.revenue;
+            malformed += o.malformed;
+            byProduct.addAll(o.byProduct);
+            byDay.addAll(o.byDay);
+            byProductDay.addAll(o.byProductDay);
+            byBasket.addAll(o.byBasket);
+            return this;
+        }
+    }
+
+    /**
+     * Open-addressing map from a long key to three long counters
+     * (revenue, units, orders), with no boxing.
+     */
+    static class LongStats {
+        private static final long EMPTY = Long.MIN_VALUE;
+        static final int FIELDS = 3;
+
+        interface Visitor {
+            void visit(long key, long revenue, long units, long orders);
+        }
+
+        private long[] keys = newKeys(64);
+        private long[] values = new long[64 * FIELDS];
+        private int size;
+
+        private static long[] newKeys(int n) {
+            long[] k = new long[n];
+            Arrays.fill(k, EMPTY);
+            return k;
+        }
+
+        void add(long key, long revenue, long units, long orders) {
+            int slot = slot(key);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                if (++size * 2 > keys.length) {
+                    grow();
+                    slot = slot(key);
+                }
+            }
+            int v = slot * FIELDS;
+            values[v] += revenue;
+            values[v + 1] += units;
+            values[v + 2] += orders;
+        }
+
+        long get(long key, int field) {
+            int slot = slot(key);
+            return keys[slot] == EMPTY ? 0 : values[slot * FIELDS + field];
+        }
+
+        void addAll(LongStats o) {
+            o.forEach(this::add);
+        }
+
+        void forEach(Visitor v) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) v.visit(keys[i], values[i * FIELDS], values[i * FIELDS + 1], values[i * FIELDS + 2]);
+            }
+        }
+
+        long[] keys() {
+            long[] out = new long[size];
+            int n = 0;
+            for (long k : keys) if (k != EMPTY) out[n++] = k;
+            return out;
+        }
+
+        // the `limit` keys with the largest value of `field`, largest first
+        long[] keysBy(int field, int limit) {
+            long[] all = keys();
+            Long[] boxed = new Long[all.length];
+            for (int i = 0; i < all.length; i++) boxed[i] = all[i];
+            Arrays.sort(boxed, (x, y) -> Long.compare(get(y, field), get(x, field)));
+            long[] out = new long[Math.min(limit, boxed.length)];
+            for (int i = 0; i < out.length; i++) out[i] = boxed[i];
+            return out;
+        }
+
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int i = (int) (mix(key) & mask);
+            while (keys[i] != EMPTY && keys[i] != key) i = (i + 1) & mask;
+            return i;
+        }
+
+        private static long mix(long k) {
+            k *= 0x9E3779B97F4A7C15L;
+            return k ^ (k >>> 29);
+        }
+
+        private void grow() {
+            long[] oldKeys = keys, oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new long[keys.length * FIELDS];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == EMPTY) continue;
+                int s = slot(oldKeys[i]);
+                keys[s] = oldKeys[i];
+                System.arraycopy(oldValues, i * FIELDS, values, s * FIELDS, FIELDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+/**
+ * Navbar search field with a drop-down of matching products.
+ * Typing is debounced; the query runs on a background thread and only the
+ * latest answer is shown. Up/Down/Enter/Escape work from the field.
+ */
+@SuppressWarnings("serial")
+public class SearchBox extends JTextField {
+
+    private static final int DEBOUNCE_MS = 150;
+    private static final int MAX_RESULTS = 8;
+
+    private final SearchIndex index;
+    private final Consumer<Product> onChoose;
+
+    private final Timer debounce;
+    private final AtomicLong generation = new AtomicLong();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "search");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final DefaultListModel<Product> results = new DefaultListModel<>();
+    private final JList<Product> resultList = new JList<>(results);
+    private final JPopupMenu popup = new JPopupMenu();
+
+    public SearchBox(SearchIndex index, Consumer<Product> onChoose) {
+        super(16);
+        this.index = index;
+        this.onChoose = onChoose;
+        setToolTipText("Search products");
+
+        resultList.setFocusable(false);
+        resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultList.setCellRenderer(new DefaultListCellRenderer() {
+            public Component getListCellRendererComponent(JList<?> list, Object value, int i, boolean sel, boolean focus) {
+                Product p = (Product) value;
+                return super.getListCellRendererComponent(list, p.name + "   " + p.displayPrice() + "   (" + p.category + ")", i, sel, focus);
+            }
+        });
+        resultList.addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int i = resultList.locationToIndex(e.getPoint());
+                if (i >= 0) choose(results.get(i));
+            }
+        });
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(resultList));
+
+        debounce = new Timer(DEBOUNCE_MS, e -> runQuery());
+        debounce.setRepeats(false);
+        getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { debounce.restart(); }
+            public void removeUpdate(DocumentEvent e) { debounce.restart(); }
+            public void changedUpdate(DocumentEvent e) { debounce.restart(); }
+        });
+
+        addKeyListener(new java.awt.event.KeyAdapter() {
+            public void keyPressed(java.awt.event.KeyEvent e) {
+                if (!popup.isVisible()) return;
+                int i = resultList.getSelectedIndex();
+                switch (e.getKeyCode()) {
+                    case java.awt.event.KeyEvent.VK_DOWN:
+                        resultList.setSelectedIndex(Math.min(results.size() - 1, i + 1));
+                        e.consume();
+                        break;
+                    case java.awt.event.KeyEvent.VK_UP:
+                        resultList.setSelectedIndex(Math.max(0, i - 1));
+                        e.consume();
+                        break;
+                    case java.awt.event.KeyEvent.VK_ENTER:
+                        if (i >= 0) choose(results.get(i));
+                        e.consume();
+                        break;
+                    case java.awt.event.KeyEvent.VK_ESCAPE:
+                        popup.setVisible(false);
+                        e.consume();
+                        break;
+                }
+            }
+        });
+    }
+
+    private void runQuery() {
+        String q = getText().trim();
+        long gen = generation.incrementAndGet();
+        if (q.isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+        worker.execute(() -> {
+            List<Product> found = index.search(q, MAX_RESULTS);
+            SwingUtilities.invokeLater(() -> {
+                if (gen == generation.get()) show(found); // ignore answers to older queries
+            });
+        });
+    }
+
+    private void show(List<Product> found) {
+        results.clear();
+        for (Product p : found) results.addElement(p);
+        if (found.isEmpty() || !isShowing()) {
+            popup.setVisible(false);
+            return;
+        }
+        resultList.setVisibleRowCount(found.size());
+        resultList.setSelectedIndex(0);
+        popup.setPreferredSize(new Dimension(Math.max(getWidth(), 360), resultList.getPreferredScrollableViewportSize().height + 6));
+        popup.pack();
+        popup.show(this, 0, getHeight());
+    }
+
+    private void choose(Product p) {
+        popup.setVisible(false);
+        onChoose.accept(p);
+    }
+}
@@ -0,0 +1,187 @@
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Type-ahead index over product names and categories.
+ * Each normalized word (lowercase, accents removed) maps to a posting list of
+ * product ids held in a plain int array. A prefix query walks the sorted term
+ * dictionary from the prefix onwards and stops as soon as it has enough
+ * candidates, so its cost depends on the result size, not on the catalog size.
+ *
+ * The index follows catalog changes through Catalog.Listener.
+ */
+public class SearchIndex implements Catalog.Listener {
+
+    // candidates gathered per requested result before ranking
+    private static final int CANDIDATES_PER_RESULT = 4;
+
+    private final TreeMap<String, IntList> terms = new TreeMap<>();
+    private final HashMap<Integer, String[]> tokensById = new HashMap<>();
+    private final HashMap<Integer, Product> productsById = new HashMap<>();
+
+    public static SearchIndex build(Catalog catalog) {
+        SearchIndex index = new SearchIndex();
+        index.indexAll(catalog);
+        return index;
+    }
+
+    /** Indexes every product of the catalog, then follows its changes. */
+    public void indexAll(Catalog catalog) {
+        catalog.addListener(this);
+        for (Product p : catalog.all()) add(p);
+    }
+
+    public synchronized void add(Product p) {
+        if (productsById.containsKey(p.id)) remove(p.id);
+        String[] tokens = tokenize(p.name + " " + p.category);
+        tokensById.put(p.id, tokens);
+        productsById.put(p.id, p);
+        for (String t : tokens) {
+            terms.computeIfAbsent(t, k -> new IntList()).add(p.id);
+        }
+    }
+
+    public synchronized void remove(int id) {
+        String[] tokens = tokensById.remove(id);
+        productsById.remove(id);
+        if (tokens == null) return;
+        for (String t : tokens) {
+            IntList list = terms.get(t);
+            if (list == null) continue;
+            list.remove(id);
+            if (list.size == 0) terms.remove(t);
+        }
+    }
+
+    public void productAdded(Product p) {
+        add(p);
+    }
+
+    public void productRemoved(Product p) {
+        remove(p.id);
+    }
+
+    public synchronized int size() {
+        return productsById.size();
+    }
+
+    /**
+     * Products matching every word of the query as a prefix, best first.
+     * Exact word matches rank above prefix matches, matches on the first word
+     * of the name rank higher, then shorter names.
+     */
+    public synchronized List<Product> search(String query, int limit) {
+        String[] q = tokenize(query);
+        if (q.length == 0 || limit <= 0) return Collections.emptyList();
+
+        // drive the search with the longest (most selective) word
+        String driver = q[0];
+        for (String t : q) if (t.length() > driver.length()) driver = t;
+
+        int wanted = limit * CANDIDATES_PER_RESULT;
+        ArrayList<Product> candidates = new ArrayList<>();
+        HashSet<Integer> seen = new HashSet<>();
+        for (Map.Entry<String, IntList> e : terms.tailMap(driver, true).entrySet()) {
+            if (!e.getKey().startsWith(driver)) break;
+            IntList ids = e.getValue();
+            for (int i = 0; i < ids.size && candidates.size() < wanted; i++) {
+                int id = ids.data[i];
+                if (seen.add(id) && matchesAll(tokensById.get(id), q)) {
+                    candidates.add(productsById.get(id));
+                }
+            }
+            if (candidates.size() >= wanted) break;
+        }
+
+        candidates.sort((a, b) -> {
+            int c = Integer.compare(score(tokensById.get(b.id), q), score(tokensById.get(a.id), q));
+            return c != 0 ? c : Integer.compare(a.name.length(), b.name.length());
+        });
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    /** Calls out with the id of every product matching the query (unranked, no limit). */
+    public synchronized void forEachMatch(String query, java.util.function.IntConsumer out) {
+        String[] q = tokenize(query);
+        if (q.length == 0) return;
+        String driver = q[0];
+        for (String t : q) if (t.length() > driver.length()) driver = t;
+
+        HashSet<Integer> seen = new HashSet<>();
+        for (Map.Entry<String, IntList> e : terms.tailMap(driver, true).entrySet()) {
+            if (!e.getKey().startsWith(driver)) break;
+            IntList ids = e.getValue();
+            for (int i = 0; i < ids.size; i++) {
+                int id = ids.data[i];
+                if (seen.add(id) && matchesAll(tokensById.get(id), q)) out.accept(id);
+            }
+        }
+    }
+
+    private static boolean matchesAll(String[] tokens, String[] query) {
+        for (String q : query) {
+            boolean found = false;
+            for (String t : tokens) {
+                if (t.startsWith(q)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static int score(String[] tokens, String[] query) {
+        int score = 0;
+        for (String q : query) {
+            for (int i = 0; i < tokens.length; i++) {
+                if (tokens[i].equals(q)) score += 3;
+                else if (tokens[i].startsWith(q)) score += 1;
+                else continue;
+                if (i == 0) score += 2;
+                break;
+            }
+        }
+        return score;
+    }
+
+    // lowercase words without accents: "Bouclé Armchair" -> [boucle, armchair]
+    static String[] tokenize(String text) {
+        String s = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        ArrayList<String> out = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && word.length() > 0) {
+                out.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) out.add(word.toString());
+        return out.toArray(new String[0]);
+    }
+
+    // growable int array used as a posting list
+    static class IntList {
+        int[] data = new int[4];
+        int size = 0;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+
+        void remove(int v) {
+            for (int i = 0; i < size; i++) {
+                if (data[i] == v) {
+                    System.arraycopy(data, i + 1, data, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import javax.swing.JOptionPane;
+
+/**
+ * What every store window of the JVM shares: the catalog (frozen, so windows,
+ * the indexer and the web storefront read it without locks), its search index
+ * and the checkout engine, hence one OrderJournal writing orders.txt.
+ * Decoded images are shared through ImageCache.shared(). Each window keeps its
+ * own Cart.
+ */
+public class Shop {
+
+    private static Shop shared;
+
+    /** The shop of this JVM, loaded from -Dfurniture.catalog (default catalog.csv) on first use. */
+    public static synchronized Shop shared() {
+        if (shared == null) shared = new Shop(loadCatalog());
+        return shared;
+    }
+
+    final Catalog catalog;
+    // filled in the background at startup
+    final SearchIndex searchIndex = new SearchIndex();
+    private CheckoutEngine checkout;
+    private StorefrontServer storefront;
+
+    public Shop(Catalog catalog) {
+        this.catalog = catalog.freeze();
+        Thread indexer = new Thread(() -> searchIndex.indexAll(this.catalog), "search-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    // -Dfurniture.catalog, else catalog.csv in the working directory, else the copy in the jar
+    private static Catalog loadCatalog() {
+        String configured = System.getProperty("furniture.catalog");
+        Path file = Paths.get(configured != null ? configured : "catalog.csv");
+        try {
+            if (configured == null && !Files.exists(file)) {
+                InputStream packaged = Shop.class.getResourceAsStream("/catalog.csv");
+                if (packaged != null) {
+                    try (Reader in = new InputStreamReader(packaged, StandardCharsets.UTF_8)) {
+                        return Catalog.parse(in);
+                    }
+                }
+            }
+            return Catalog.load(file);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null, "Could not load catalog " + file + ": " + e.getMessage());
+            return new Catalog();
+        }
+    }
+
+    /** One engine for all windows; orders.txt is opened on first use. */
+    public synchronized CheckoutEngine checkout() {
+        if (checkout == null) checkout = new CheckoutEngine(catalog, OrderJournal.shared());
+        return checkout;
+    }
+
+    /** Starts the web storefront on this shop (once, whatever the number of windows). */
+    public synchronized void startStorefront(int port) throws IOException {
+        if (storefront != null) return;
+        StorefrontServer s = new StorefrontServer(catalog, searchIndex, checkout());
+        s.start(port);
+        storefront = s;
+    }
+}
@@ -0,0 +1,107 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder events of the shop. They cost next to nothing unless a
+ * recording is running, e.g.
+ *   jcmd <pid> JFR.start name=shop settings=profile duration=5m filename=shop.jfr
+ * and then show up in JMC (or `jfr print --categories Furniture shop.jfr`)
+ * next to the JDK's own GC, I/O and lock events.
+ */
+public final class ShopEvents {
+
+    private ShopEvents() {}
+
+    @Name("furniture.ImageLoad")
+    @Label("Image Load")
+    @Category({"Furniture", "Images"})
+    @Description("A scaled image asked from the image cache; the duration is the decode + scale on a miss")
+    public static class ImageLoad extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+
+        @Label("Cache Hit")
+        boolean cacheHit;
+
+        @Label("Source")
+        @Description("cache, in-flight load of another caller, full-size source, thumbnail store or decode")
+        String source;
+
+        @Label("Image Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("furniture.CartChange")
+    @Label("Cart Change")
+    @Category({"Furniture", "Cart"})
+    @Description("A cart mutation, including the listeners (the views) it notified")
+    public static class CartChange extends Event {
+        @Label("Action")
+        String action;
+
+        @Label("Product Id")
+        int productId;
+
+        @Label("Quantity Change")
+        int quantityChange;
+
+        @Label("Lines")
+        int lines;
+
+        @Label("Total")
+        @Description("Cart total after the change, in minor units")
+        long total;
+    }
+
+    @Name("furniture.CheckoutValidation")
+    @Label("Checkout Validation")
+    @Category({"Furniture", "Checkout"})
+    public static class CheckoutValidation extends Event {
+        @Label("Accepted")
+        boolean accepted;
+
+        @Label("Reason")
+        @Description("Why it was refused, as told to the customer")
+        String reason;
+
+        @Label("Items")
+        int items;
+
+        @Label("Total")
+        @Description("Order total in minor units (0 if refused)")
+        long total;
+    }
+
+    @Name("furniture.OrderWrite")
+    @Label("Order Write")
+    @Category({"Furniture", "Orders"})
+    @Description("One write of the order journal: a batch of orders appended and, depending on the mode, forced")
+    public static class OrderWrite extends Event {
+        @Label("Orders")
+        int orders;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Forced")
+        boolean forced;
+
+        @Label("Durability")
+        String durability;
+
+        @Label("Failed")
+        boolean failed;
+    }
+}
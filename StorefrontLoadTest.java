@@ -0,0 +1,125 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator for StorefrontServer. Opens N simulated connections, each
+ * sending one request after another (closed loop) with its own cart cookie:
+ *   50% product page, 20% single product, 15% scaled image,
+ *   10% add to cart, 5% view cart.
+ * After a warm-up, reports requests/sec, errors and latency percentiles.
+ * Run the server in another JVM; 10k connections need a file limit
+ * (ulimit -n) above 10k on both sides.
+ *
+ * Usage: java -cp . StorefrontLoadTest [base url] [--connections N] [--seconds N] [--warmup N]
+ */
+public class StorefrontLoadTest {
+
+    private static final String[] IMAGES = {"armchair.jpg", "lamp.jpg", "bedroom2.jpg", "mirror.jpg", "lounge.jpg",
+            "bedroom.jpg", "nightstand.jpg", "dinning.jpg", "living.jpg"};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    private final String base;
+    private final int productCount;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong ok = new AtomicLong(), errors = new AtomicLong();
+    private final AtomicBoolean measuring = new AtomicBoolean(), running = new AtomicBoolean(true);
+
+    StorefrontLoadTest(String base, int productCount) {
+        this.base = base;
+        this.productCount = productCount;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String base = "http://localhost:8080";
+        int connections = 10_000, seconds = 30, warmup = 5;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--connections": connections = Integer.parseInt(args[++i]); break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                case "--warmup": warmup = Integer.parseInt(args[++i]); break;
+                default: base = args[i];
+            }
+        }
+
+        // catalog size, so product ids are picked from what exists
+        HttpClient probe = HttpClient.newHttpClient();
+        String body = probe.send(HttpRequest.newBuilder(URI.create(base + "/api/products?limit=0")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        int total = Integer.parseInt(body.replaceAll("^\\{\"total\":(\\d+).*$", "$1"));
+
+        StorefrontLoadTest test = new StorefrontLoadTest(base, total);
+        System.out.printf("%s: %d products, %d connections, %d s warm-up, %d s measured%n", base, total, connections, warmup, seconds);
+        for (int c = 0; c < connections; c++) test.next(new String[1]);
+
+        Thread.sleep(warmup * 1000L);
+        test.measuring.set(true);
+        long t0 = System.nanoTime();
+        for (int s = 1; s <= seconds; s++) {
+            Thread.sleep(1000);
+            if (s % 5 == 0) System.out.printf("  %3d s  %,d ok  %,d errors%n", s, test.ok.get(), test.errors.get());
+        }
+        test.measuring.set(false);
+        test.running.set(false);
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("%.0f requests/sec (%,d ok, %,d errors)%n", test.ok.get() / secs, test.ok.get(), test.errors.get());
+        System.out.println("latency " + test.latency.summary());
+        System.exit(0);
+    }
+
+    // sends the next request of one connection; the reply schedules the one after
+    private void next(String[] cookie) {
+        if (!running.get()) return;
+        HttpRequest req = request(cookie[0]);
+        long start = System.nanoTime();
+        client.sendAsync(req, HttpResponse.BodyHandlers.discarding()).whenComplete((resp, err) -> {
+            long took = System.nanoTime() - start;
+            boolean good = err == null && resp.statusCode() < 400;
+            if (good) {
+                List<String> set = resp.headers().allValues("Set-Cookie");
+                if (!set.isEmpty()) cookie[0] = set.get(0).split(";")[0];
+            }
+            if (measuring.get()) {
+                if (good) {
+                    ok.incrementAndGet();
+                    latency.record(took);
+                } else {
+                    errors.incrementAndGet();
+                }
+            }
+            next(cookie);
+        });
+    }
+
+    private HttpRequest request(String cookie) {
+        Random rnd = ThreadLocalRandom.current();
+        int roll = rnd.nextInt(100);
+        HttpRequest.Builder b;
+        if (roll < 50) {
+            b = HttpRequest.newBuilder(URI.create(base + "/api/products?limit=24&offset=" + rnd.nextInt(Math.max(1, productCount))));
+        } else if (roll < 70) {
+            b = HttpRequest.newBuilder(URI.create(base + "/api/products/" + (1 + rnd.nextInt(Math.max(1, productCount)))));
+        } else if (roll < 85) {
+            b = HttpRequest.newBuilder(URI.create(base + "/images/" + IMAGES[rnd.nextInt(IMAGES.length)] + "?w=220&h=180"));
+        } else if (roll < 95) {
+            b = HttpRequest.newBuilder(URI.create(base + "/api/cart/items"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("productId=" + (1 + rnd.nextInt(Math.max(1, productCount)))));
+        } else {
+            b = HttpRequest.newBuilder(URI.create(base + "/api/cart"));
+        }
+        if (cookie != null) b.header("Cookie", cookie);
+        return b.timeout(Duration.ofSeconds(60)).build();
+    }
+}
@@ -0,0 +1,443 @@
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+
+/**
+ * The shop over HTTP, on the JDK's com.sun.net.httpserver. It serves the same
+ * Catalog, ImageCache and CheckoutEngine (so the same orders.txt) as the
+ * desktop window when started from it (-Dfurniture.http.port=8080), or on its
+ * own: java -cp . StorefrontServer [port] [catalog.csv]
+ *
+ *   GET    /api/products?category=&min=&max=&q=&offset=&limit=
+ *   GET    /api/products/{id}
+ *   GET    /images/{file}           original file, sent with FileChannel.transferTo
+ *   GET    /images/{file}?w=&h=     scaled through ImageCache, JPEG bytes kept in memory
+ *   GET    /api/cart                cart of the "cart" cookie (created on first use)
+ *   POST   /api/cart/items          productId=&quantity=
+ *   POST   /api/cart/items/{id}     quantity=   (0 removes the line)
+ *   DELETE /api/cart/items/{id}
+ *   POST   /api/checkout            name=&phone=&email=&address=
+ *
+ * The build targets release 17, which has no virtual threads: on the JDK 17
+ * this project builds and runs with, handlers always run on the bounded
+ * "storefront-http" pool. Virtual threads are only looked up reflectively and
+ * used if the jar is launched on a 21+ runtime. The catalog is only read here.
+ */
+public class StorefrontServer {
+
+    private static final int MAX_CARTS = 100_000;
+    private static final long CART_IDLE_MS = 30 * 60_000L;
+    private static final int MAX_SCALED_IMAGES = 256;
+    private static final int MAX_PAGE = 500;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        Catalog catalog = Catalog.load(Paths.get(args.length > 1 ? args[1] : "catalog.csv")).freeze();
+        SearchIndex search = SearchIndex.build(catalog);
+        StorefrontServer server = new StorefrontServer(catalog, search, new CheckoutEngine(catalog, OrderJournal.shared()));
+        server.start(port);
+        System.out.println("Storefront on http://localhost:" + port + "/api/products (" + server.executorKind() + ")");
+    }
+
+    private static class Session {
+        final Cart cart = new Cart();
+        volatile long lastUsed = System.currentTimeMillis();
+    }
+
+    private final Catalog catalog;
+    private final FacetIndex facets;
+    private final CheckoutEngine checkout;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    // "file@wxh" -> encoded JPEG, least recently used first
+    private final LinkedHashMap<String, byte[]> scaled = new LinkedHashMap<String, byte[]>(64, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> e) {
+            return size() > MAX_SCALED_IMAGES;
+        }
+    };
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private boolean virtualThreads;
+
+    public StorefrontServer(Catalog catalog, SearchIndex searchIndex, CheckoutEngine checkout) {
+        this.catalog = catalog;
+        this.facets = new FacetIndex(catalog, searchIndex);
+        this.checkout = checkout;
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 4096);
+        server.createContext("/api/products", ex -> handle(ex, this::products));
+        server.createContext("/api/cart", ex -> handle(ex, this::cart));
+        server.createContext("/api/checkout", ex -> handle(ex, this::checkout));
+        server.createContext("/images/", ex -> handle(ex, this::image));
+        executor = newExecutor();
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public void stop() {
+        if (server == null) return;
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    public String executorKind() {
+        return virtualThreads ? "virtual threads" : "thread pool";
+    }
+
+    // the pool on 17; Executors.newVirtualThreadPerTaskExecutor() only exists from 21 on
+    private ExecutorService newExecutor() {
+        try {
+            ExecutorService vt = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            virtualThreads = true;
+            return vt;
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(16, Runtime.getRuntime().availableProcessors() * 16);
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "storefront-http");
+                t.setDaemon(true);
+                return t;
+            });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+
+    // -------------------- dispatch --------------------
+    private interface Handler {
+        void handle(HttpExchange ex) throws IOException;
+    }
+
+    /** A response other than 200, with a message for the client. */
+    private static class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void handle(HttpExchange ex, Handler h) {
+        try {
+            h.handle(ex);
+        } catch (HttpError e) {
+            sendJson(ex, e.status, "{\"error\":" + quote(e.getMessage()) + "}");
+        } catch (Exception e) {
+            sendJson(ex, 500, "{\"error\":" + quote(String.valueOf(e.getMessage())) + "}");
+        } finally {
+            ex.close();
+        }
+    }
+
+    // -------------------- catalog --------------------
+    private void products(HttpExchange ex) throws IOException {
+        requireMethod(ex, "GET");
+        String path = ex.getRequestURI().getPath();
+        if (path.length() > "/api/products/".length()) {
+            Product p = catalog.byId(intParam(path.substring("/api/products/".length()), "id"));
+            if (p == null) throw new HttpError(404, "No such product");
+            sendJson(ex, 200, json(p));
+            return;
+        }
+        Map<String, String> q = params(ex.getRequestURI().getRawQuery());
+        List<Product> found = facets.filter(q.get("category"), longParam(q, "min", -1), longParam(q, "max", -1), q.get("q"));
+        int offset = (int) Math.max(0, longParam(q, "offset", 0));
+        int limit = (int) Math.min(MAX_PAGE, Math.max(0, longParam(q, "limit", 50)));
+
+        StringBuilder sb = new StringBuilder(128 + limit * 120);
+        sb.append("{\"total\":").append(found.size()).append(",\"offset\":").append(offset).append(",\"products\":[");
+        for (int i = offset; i < Math.min(found.size(), offset + limit); i++) {
+            if (i > offset) sb.append(',');
+            sb.append(json(found.get(i)));
+        }
+        sendJson(ex, 200, sb.append("]}").toString());
+    }
+
+    // -------------------- images --------------------
+    private void image(HttpExchange ex) throws IOException {
+        requireMethod(ex, "GET");
+        String file = ex.getRequestURI().getPath().substring("/images/".length());
+        if (file.isEmpty() || file.contains("/") || file.contains("..")) throw new HttpError(404, "No such image");
+        URL url = ImageCache.resource(file);
+        if (url == null) throw new HttpError(404, "No such image");
+
+        Map<String, String> q = params(ex.getRequestURI().getRawQuery());
+        if (q.containsKey("w") && q.containsKey("h")) {
+            int w = clampSize(longParam(q, "w", 0)), hh = clampSize(longParam(q, "h", 0));
+            byte[] bytes = scaledJpeg(file, w, hh);
+            imageHeaders(ex, "image/jpeg");
+            ex.sendResponseHeaders(200, bytes.length);
+            ex.getResponseBody().write(bytes);
+            return;
+        }
+
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel ch = FileChannel.open(Paths.get(url.toURI()))) {
+                long size = ch.size();
+                imageHeaders(ex, contentType(file));
+                ex.sendResponseHeaders(200, size);
+                OutputStream out = ex.getResponseBody();
+                long pos = 0;
+                while (pos < size) pos += ch.transferTo(pos, size - pos, Channels.newChannel(out));
+            } catch (java.net.URISyntaxException e) {
+                throw new IOException(e);
+            }
+        } else { // inside a jar
+            try (InputStream in = url.openStream()) {
+                imageHeaders(ex, contentType(file));
+                ex.sendResponseHeaders(200, 0);
+                in.transferTo(ex.getResponseBody());
+            }
+        }
+    }
+
+    // only on a 200: an error must not be cached by the browser for a day
+    private static void imageHeaders(HttpExchange ex, String contentType) {
+        Headers h = ex.getResponseHeaders();
+        h.set("Cache-Control", "public, max-age=86400");
+        h.set("Content-Type", contentType);
+    }
+
+    private static String contentType(String file) {
+        return file.endsWith(".png") ? "image/png" : "image/jpeg";
+    }
+
+    private static int clampSize(long v) {
+        if (v < 1 || v > 2000) throw new HttpError(400, "w and h must be between 1 and 2000");
+        return (int) v;
+    }
+
+    // scaled once through the shared ImageCache, encoded once, then served from memory
+    private byte[] scaledJpeg(String file, int w, int h) throws IOException {
+        String key = file + "@" + w + "x" + h;
+        synchronized (scaled) {
+            byte[] b = scaled.get(key);
+            if (b != null) return b;
+        }
+        BufferedImage img = ImageCache.shared().get(file, w, h);
+        if (img == null) throw new HttpError(404, "No such image");
+        if (img.getColorModel().hasAlpha()) { // JPEG has no alpha
+            BufferedImage rgb = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_RGB);
+            rgb.getGraphics().drawImage(img, 0, 0, null);
+            img = rgb;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        ImageIO.write(img, "jpg", out);
+        byte[] b = out.toByteArray();
+        synchronized (scaled) {
+            scaled.put(key, b);
+        }
+        return b;
+    }
+
+    // -------------------- cart --------------------
+    private void cart(HttpExchange ex) throws IOException {
+        Session s = session(ex);
+        String method = ex.getRequestMethod();
+        String path = ex.getRequestURI().getPath();
+        String rest = path.startsWith("/api/cart/items") ? path.substring("/api/cart/items".length()) : null;
+
+        synchronized (s.cart) { // Cart is single-threaded; one request per cart at a time
+            if (path.equals("/api/cart") && method.equals("GET")) {
+                // just show it
+            } else if (rest != null && rest.isEmpty() && method.equals("POST")) {
+                Map<String, String> f = form(ex);
+                Product p = catalog.byId(intParam(f.get("productId"), "productId"));
+                if (p == null) throw new HttpError(404, "No such product");
+                int qty = f.containsKey("quantity") ? intParam(f.get("quantity"), "quantity") : 1;
+                if (qty <= 0) throw new HttpError(400, "quantity must be positive");
+                s.cart.add(p, qty);
+            } else if (rest != null && rest.startsWith("/") && method.equals("POST")) {
+                int qty = intParam(form(ex).get("quantity"), "quantity");
+                if (qty < 0) throw new HttpError(400, "quantity must be >= 0");
+                if (!s.cart.setQuantity(intParam(rest.substring(1), "id"), qty)) throw new HttpError(404, "Not in the cart");
+            } else if (rest != null && rest.startsWith("/") && method.equals("DELETE")) {
+                if (!s.cart.remove(intParam(rest.substring(1), "id"))) throw new HttpError(404, "Not in the cart");
+            } else {
+                throw new HttpError(405, "Not supported: " + method + " " + path);
+            }
+            sendJson(ex, 200, json(s.cart));
+        }
+    }
+
+    private void checkout(HttpExchange ex) throws IOException {
+        requireMethod(ex, "POST");
+        Session s = session(ex);
+        Map<String, String> f = form(ex);
+        CheckoutEngine.Customer customer = new CheckoutEngine.Customer(f.get("name"), f.get("phone"), f.get("email"), f.get("address"));
+        Order order;
+        synchronized (s.cart) {
+            try {
+                order = checkout.checkout(customer, s.cart).join(); // handler threads may block
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof CheckoutEngine.CheckoutException) throw new HttpError(400, e.getCause().getMessage());
+                throw new HttpError(500, "Error saving order: " + e.getCause().getMessage());
+            }
+            s.cart.clear();
+        }
+        sendJson(ex, 200, "{\"status\":\"confirmed\",\"items\":" + order.items.size()
+                + ",\"total\":" + order.total + ",\"totalText\":" + quote(Product.formatPrice(order.total)) + "}");
+    }
+
+    // cart of the "cart" cookie, or a new one (idle carts are dropped when there are too many)
+    private Session session(HttpExchange ex) {
+        String id = cookie(ex, "cart");
+        Session s = id == null ? null : sessions.get(id);
+        if (s == null) {
+            if (sessions.size() >= MAX_CARTS) expireIdle();
+            byte[] b = new byte[16];
+            random.nextBytes(b);
+            StringBuilder hex = new StringBuilder(32);
+            for (byte x : b) hex.append(String.format("%02x", x));
+            id = hex.toString();
+            s = new Session();
+            sessions.put(id, s);
+            ex.getResponseHeaders().add("Set-Cookie", "cart=" + id + "; Path=/; HttpOnly; SameSite=Lax");
+        }
+        s.lastUsed = System.currentTimeMillis();
+        return s;
+    }
+
+    private void expireIdle() {
+        long cutoff = System.currentTimeMillis() - CART_IDLE_MS;
+        sessions.values().removeIf(s -> s.lastUsed < cutoff);
+        if (sessions.size() >= MAX_CARTS) throw new HttpError(503, "Too many open carts");
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    // -------------------- HTTP helpers --------------------
+    private static void requireMethod(HttpExchange ex, String method) {
+        if (!ex.getRequestMethod().equals(method)) throw new HttpError(405, "Use " + method);
+    }
+
+    private static void sendJson(HttpExchange ex, int status, String body) {
+        try {
+            byte[] b = body.getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            ex.sendResponseHeaders(status, b.length);
+            ex.getResponseBody().write(b);
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    private static String cookie(HttpExchange ex, String name) {
+        List<String> headers = ex.getRequestHeaders().get("Cookie");
+        if (headers == null) return null;
+        for (String header : headers) {
+            for (String part : header.split(";")) {
+                int eq = part.indexOf('=');
+                if (eq > 0 && part.substring(0, eq).trim().equals(name)) return part.substring(eq + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> form(HttpExchange ex) throws IOException {
+        byte[] body = ex.getRequestBody().readNBytes(64 * 1024);
+        Map<String, String> m = params(ex.getRequestURI().getRawQuery());
+        m.putAll(params(new String(body, StandardCharsets.UTF_8)));
+        return m;
+    }
+
+    private static Map<String, String> params(String raw) {
+        HashMap<String, String> m = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return m;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String k = eq < 0 ? pair : pair.substring(0, eq);
+            String v = eq < 0 ? "" : pair.substring(eq + 1);
+            m.put(URLDecoder.decode(k, StandardCharsets.UTF_8), URLDecoder.decode(v, StandardCharsets.UTF_8));
+        }
+        return m;
+    }
+
+    private static int intParam(String v, String name) {
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (RuntimeException e) {
+            throw new HttpError(400, "Bad or missing " + name);
+        }
+    }
+
+    private static long longParam(Map<String, String> q, String name, long def) {
+        String v = q.get(name);
+        if (v == null || v.isEmpty()) return def;
+        try {
+            return Long.parseLong(v.trim());
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Bad " + name);
+        }
+    }
+
+    // -------------------- JSON --------------------
+    private static String json(Product p) {
+        return "{\"id\":" + p.id + ",\"name\":" + quote(p.name) + ",\"category\":" + quote(p.category)
+                + ",\"price\":" + p.price + ",\"priceText\":" + quote(p.displayPrice())
+                + ",\"image\":" + quote("/images/" + p.imgName) + "}";
+    }
+
+    private static String json(Cart cart) {
+        StringBuilder sb = new StringBuilder(64 + cart.size() * 160);
+        sb.append("{\"lines\":[");
+        for (int i = 0; i < cart.size(); i++) {
+            Cart.Line l = cart.line(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"product\":").append(json(l.product)).append(",\"quantity\":").append(l.quantity)
+                    .append(",\"subtotal\":").append(l.subtotal()).append('}');
+        }
+        return sb.append("],\"items\":").append(cart.getItemCount()).append(",\"total\":").append(cart.getTotal())
+                .append(",\"totalText\":").append(quote(Product.formatPrice(cart.getTotal()))).append('}').toString();
+    }
+
+    static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,67 @@
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Bulk import of mailing-list addresses into a SubscriberStore, with a
+ * throughput report. --generate writes a synthetic CSV first (with duplicates,
+ * mixed case and bad rows) to try it on.
+ *
+ * Usage: java -cp . SubscriberImport <csv> [--store subscribers.txt] [--column N] [--bloom]
+ *        java -cp . SubscriberImport --generate <rows> <csv>
+ */
+public class SubscriberImport {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && args[0].equals("--generate")) {
+            generate(Long.parseLong(args[1]), Paths.get(args[2]));
+            return;
+        }
+        if (args.length < 1) {
+            System.out.println("Usage: java SubscriberImport <csv> [--store file] [--column N] [--bloom]");
+            return;
+        }
+        Path csv = Paths.get(args[0]);
+        Path storeFile = Paths.get("subscribers.txt");
+        int column = -1;
+        boolean bloom = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--store": storeFile = Paths.get(args[++i]); break;
+                case "--column": column = Integer.parseInt(args[++i]); break;
+                case "--bloom": bloom = true; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        long t0 = System.nanoTime();
+        try (SubscriberStore store = new SubscriberStore(storeFile, bloom)) {
+            System.out.printf("%s: %,d subscribers loaded in %.2f s%n", storeFile, store.size(), (System.nanoTime() - t0) / 1e9);
+            SubscriberStore.ImportReport report = store.importCsv(csv, column);
+            System.out.println(report);
+            System.out.printf("%,d subscribers, %.1f MB in memory%n", store.size(), store.memoryBytes() / 1e6);
+        }
+    }
+
+    private static void generate(long rows, Path csv) throws Exception {
+        Random rnd = new Random(7);
+        String[] domains = {"gmail.com", "yahoo.fr", "outlook.com", "djezzy.dz", "mail.ru", "example.org"};
+        long distinct = Math.max(1, rows * 7 / 10); // ~30% of rows repeat an earlier address
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("name,email,signed_up\n");
+            for (long i = 0; i < rows; i++) {
+                long id = (long) (rnd.nextDouble() * distinct);
+                String email = "user" + id + "@" + domains[(int) (id % domains.length)];
+                int kind = rnd.nextInt(100);
+                if (kind < 3) email = "user" + id + "@" + "nodot";           // invalid
+                else if (kind < 5) email = "user " + id + "@gmail.com";       // invalid
+                else if (kind < 15) email = "  " + email.toUpperCase() + " "; // same address, other case
+                out.write("User " + id + "," + email + ",2025-0" + (1 + id % 9) + "-1" + (id % 10) + "\n");
+            }
+        }
+        System.out.println("Wrote " + rows + " rows to " + csv);
+    }
+}
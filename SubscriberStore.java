@@ -0,0 +1,307 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Mailing-list subscribers: normalized addresses (see EmailAddress), each
+ * kept once, appended one per line to subscribers.txt and read back on open.
+ *
+ * In memory the addresses are UTF-8 bytes packed into one array, with an
+ * open-addressing table of (hash, entry) longs on top, about 16 bytes per
+ * address plus the address itself and no object per address. A Bloom filter
+ * can sit in front (-Dfurniture.subscribers.bloom=true) so most new
+ * addresses are accepted without touching the table.
+ */
+public class SubscriberStore implements AutoCloseable {
+
+    public enum Result { ADDED, DUPLICATE, INVALID }
+
+    /** Counts of one bulk import. */
+    public static class ImportReport {
+        long lines, bytes, invalid, duplicates, added, bloomNegatives, nanos;
+
+        @Override
+        public String toString() {
+            double secs = nanos / 1e9;
+            return String.format("%,d lines (%.1f MB): %,d added, %,d duplicates, %,d invalid in %.2f s"
+                            + " - %,.0f lines/s, %.1f MB/s%s", lines, bytes / 1e6, added, duplicates, invalid, secs,
+                    lines / secs, bytes / 1e6 / secs, bloomNegatives > 0 ? ", " + bloomNegatives + " settled by the Bloom filter" : "");
+        }
+    }
+
+    private static SubscriberStore shared;
+
+    /** The store behind the mailing-list form (-Dfurniture.subscribers, default subscribers.txt). */
+    public static synchronized SubscriberStore shared() throws IOException {
+        if (shared == null) {
+            shared = new SubscriberStore(Paths.get(System.getProperty("furniture.subscribers", "subscribers.txt")),
+                    Boolean.getBoolean("furniture.subscribers.bloom"));
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "subscribers-close"));
+        }
+        return shared;
+    }
+
+    /** shared() opened on a thread of its own: reading a large subscribers.txt takes seconds. */
+    public static CompletableFuture<SubscriberStore> sharedAsync() {
+        synchronized (SubscriberStore.class) {
+            if (shared != null) return CompletableFuture.completedFuture(shared);
+        }
+        CompletableFuture<SubscriberStore> opened = new CompletableFuture<>();
+        Thread t = new Thread(() -> {
+            try {
+                opened.complete(shared());
+            } catch (IOException | RuntimeException e) {
+                opened.completeExceptionally(e);
+            }
+        }, "subscribers-open");
+        t.setDaemon(true);
+        t.start();
+        return opened;
+    }
+
+    private final Path file;
+    private final BufferedWriter out;
+    private final boolean useBloom;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "subscribers");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // packed addresses: entry i is arena[offsets[i] .. offsets[i + 1])
+    private byte[] arena = new byte[1 << 16];
+    private int[] offsets = new int[1025];
+    private int size;
+    // slot: hash high 32 bits << 32 | (entry + 1); 0 = empty
+    private long[] table = new long[2048];
+    private BloomFilter bloom;
+    private long bloomCapacity;
+
+    public SubscriberStore(Path file, boolean useBloom) throws IOException {
+        this.file = file;
+        this.useBloom = useBloom;
+        if (Files.exists(file)) {
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!line.isEmpty()) insert(line.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        if (useBloom) rebuildBloom(Math.max(1 << 20, size * 2L));
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(ch), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    // -------------------- API --------------------
+
+    /** Validates, normalizes and stores the address; written to the file before returning. */
+    public synchronized Result subscribe(String raw) throws IOException {
+        String email = EmailAddress.normalize(raw);
+        if (email == null) return Result.INVALID;
+        if (!add(email)) return Result.DUPLICATE;
+        out.flush();
+        return Result.ADDED;
+    }
+
+    /** subscribe() on the store's own thread, for the UI. */
+    public CompletableFuture<Result> subscribeAsync(String raw) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return subscribe(raw);
+            } catch (IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        }, worker);
+    }
+
+    public synchronized boolean contains(String raw) {
+        String email = EmailAddress.normalize(raw);
+        if (email == null) return false;
+        byte[] b = email.getBytes(StandardCharsets.UTF_8);
+        return find(b, hash(b)) >= 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Streams a CSV (or plain list) of addresses in one pass. The address is
+     * taken from the given column (0-based), or from the first field holding
+     * an '@' when column is -1; a header line simply counts as invalid.
+     */
+    public synchronized ImportReport importCsv(Path csv, int column) throws IOException {
+        ImportReport r = new ImportReport();
+        long t0 = System.nanoTime();
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                r.lines++;
+                r.bytes += line.length() + 1;
+                String email = EmailAddress.normalize(field(line, column));
+                if (email == null) {
+                    r.invalid++;
+                    continue;
+                }
+                byte[] b = email.getBytes(StandardCharsets.UTF_8);
+                long h = hash(b);
+                boolean known;
+                if (bloom != null && !bloom.mightContain(h)) {
+                    r.bloomNegatives++;
+                    known = false;
+                } else {
+                    known = find(b, h) >= 0;
+                }
+                if (known) {
+                    r.duplicates++;
+                } else {
+                    insert(b, h);
+                    out.write(email);
+                    out.newLine();
+                    r.added++;
+                }
+            }
+        }
+        out.flush();
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    // the address field of a CSV line: given column, or first field with an '@'; quotes stripped
+    private static String field(String line, int column) {
+        char sep = line.indexOf(',') >= 0 ? ',' : ';';
+        int start = 0, col = 0;
+        while (start <= line.length()) {
+            int end = line.indexOf(sep, start);
+            if (end < 0) end = line.length();
+            String f = line.substring(start, end).trim();
+            if (f.length() >= 2 && f.charAt(0) == '"' && f.charAt(f.length() - 1) == '"') f = f.substring(1, f.length() - 1);
+            if (column >= 0 ? col == column : f.indexOf('@') >= 0) return f;
+            start = end + 1;
+            col++;
+        }
+        return null;
+    }
+
+    // -------------------- set --------------------
+
+    private boolean add(String email) throws IOException {
+        byte[] b = email.getBytes(StandardCharsets.UTF_8);
+        long h = hash(b);
+        if ((bloom == null || bloom.mightContain(h)) && find(b, h) >= 0) return false;
+        insert(b, h);
+        out.write(email);
+        out.newLine();
+        return true;
+    }
+
+    private void insert(byte[] b) {
+        long h = hash(b);
+        if (find(b, h) < 0) insert(b, h);
+    }
+
+    private void insert(byte[] b, long h) {
+        int start = offsets[size];
+        if (start + b.length > arena.length) {
+            long cap = Math.max((long) arena.length * 2, (long) start + b.length);
+            if (cap > Integer.MAX_VALUE - 8) throw new IllegalStateException("Subscriber store is full");
+            arena = Arrays.copyOf(arena, (int) cap);
+        }
+        System.arraycopy(b, 0, arena, start, b.length);
+        if (size + 2 > offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        offsets[size + 1] = start + b.length;
+
+        if ((size + 1) * 2L > table.length) growTable();
+        place(h, size);
+        size++;
+        if (bloom != null) {
+            if (size > bloomCapacity) rebuildBloom(bloomCapacity * 2);
+            else bloom.add(h);
+        }
+    }
+
+    private void place(long h, int entry) {
+        int mask = table.length - 1;
+        int i = (int) h & mask;
+        while (table[i] != 0) i = (i + 1) & mask;
+        table[i] = (h & 0xFFFFFFFF00000000L) | (entry + 1L);
+    }
+
+    // entry index, or -1
+    private int find(byte[] b, long h) {
+        int mask = table.length - 1;
+        long high = h & 0xFFFFFFFF00000000L;
+        for (int i = (int) h & mask; table[i] != 0; i = (i + 1) & mask) {
+            long slot = table[i];
+            if ((slot & 0xFFFFFFFF00000000L) != high) continue;
+            int e = (int) (slot & 0xFFFFFFFFL) - 1;
+            int s = offsets[e], len = offsets[e + 1] - s;
+            if (len == b.length && Arrays.equals(arena, s, s + len, b, 0, len)) return e;
+        }
+        return -1;
+    }
+
+    private void growTable() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        for (long slot : old) {
+            if (slot == 0) continue;
+            int e = (int) (slot & 0xFFFFFFFFL) - 1;
+            place(hash(arena, offsets[e], offsets[e + 1]), e);
+        }
+    }
+
+    private void rebuildBloom(long capacity) {
+        if (!useBloom) return;
+        bloomCapacity = capacity;
+        bloom = new BloomFilter(capacity, 0.01);
+        for (int e = 0; e < size; e++) bloom.add(hash(arena, offsets[e], offsets[e + 1]));
+    }
+
+    private static long hash(byte[] b) {
+        return hash(b, 0, b.length);
+    }
+
+    // FNV-1a, then a final mix so both halves are usable
+    private static long hash(byte[] b, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) h = (h ^ (b[i] & 0xFF)) * 0x100000001b3L;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public synchronized long memoryBytes() {
+        return arena.length + offsets.length * 4L + table.length * 8L + (bloom == null ? 0 : bloom.sizeBytes());
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        worker.shutdown();
+        synchronized (this) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // nothing more to do at shutdown
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+import java.awt.*;
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.border.CompoundBorder;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.LineBorder;
+
+/**
+ * Fonts, colors and borders of the storefront, all created once per theme.
+ * Components are not styled by hand: they get a Role (style(c, role)) and the
+ * current theme styles them; hoverable roles share one HoverController, which
+ * only swaps between the theme's ready-made instances. setCurrent() restyles
+ * every open window in place, e.g. Ctrl+Shift+T in FurnitureUI or
+ * -Dfurniture.theme=dark at start.
+ */
+public final class Theme {
+
+    /** What a component is on the page; decides which fonts/colors/borders it takes. */
+    public enum Role {
+        NAVBAR, BRAND, NAV_LINK(true),
+        BUTTON(true), BUTTON_LARGE(true), BUTTON_WIDE(true),
+        SECTION, SECTION_ALT, SECTION_ACCENT, FOOTER,
+        SECTION_TITLE, MAILING_TITLE, LEAD, HERO_OVERLAY, HERO_TITLE, HERO_SUBTITLE, FOOTER_TITLE,
+        CARD(true), RANGE_CARD(true), CARD_TITLE, CARD_TEXT, PRICE, STATUS,
+        DIALOG, DIALOG_TITLE, FORM_LABEL, TOTAL, CART_ROW, CART_ROW_TEXT, CART_ROW_DETAIL, ROW_BUTTON, DANGER_BUTTON;
+
+        final boolean hoverable;
+
+        Role() {
+            this(false);
+        }
+
+        Role(boolean hoverable) {
+            this.hoverable = hoverable;
+        }
+    }
+
+    public static final Theme LIGHT = new Theme("light",
+            new Color(30, 50, 80), new Color(18, 35, 65), Color.WHITE, new Color(51, 51, 51),
+            Color.WHITE, new Color(245, 245, 245), new Color(237, 244, 252), new Color(255, 255, 255, 200),
+            new Color(220, 220, 220), new Color(200, 200, 200));
+
+    public static final Theme DARK = new Theme("dark",
+            new Color(70, 110, 170), new Color(95, 140, 205), Color.WHITE, new Color(225, 228, 235),
+            new Color(32, 34, 38), new Color(40, 43, 48), new Color(30, 42, 58), new Color(32, 34, 38, 220),
+            new Color(70, 72, 78), new Color(85, 88, 95));
+
+    private static final String ROLE_KEY = "furniture.theme.role";
+    private static volatile Theme current = named(System.getProperty("furniture.theme", "light"));
+
+    public static Theme current() {
+        return current;
+    }
+
+    /** LIGHT or DARK by name (LIGHT if unknown). */
+    public static Theme named(String name) {
+        return DARK.name.equalsIgnoreCase(name) ? DARK : LIGHT;
+    }
+
+    // -------------------- fonts --------------------
+    public final String name;
+    public final Font body = new Font("Segoe UI", Font.PLAIN, 15);
+    public final Font bodyBold = new Font("Segoe UI", Font.BOLD, 17);
+    public final Font buttonLarge = new Font("Segoe UI", Font.BOLD, 16);
+    public final Font buttonWide = new Font("Segoe UI", Font.BOLD, 14);
+    public final Font heroTitle = new Font("SansSerif", Font.BOLD, 40);
+    public final Font heroSubtitle = new Font("SansSerif", Font.PLAIN, 20);
+    public final Font sectionTitle = new Font("SansSerif", Font.BOLD, 32);
+    public final Font mailingTitle = new Font("SansSerif", Font.BOLD, 28);
+    public final Font footerTitle = new Font("SansSerif", Font.BOLD, 18);
+    public final Font lead = new Font("SansSerif", Font.PLAIN, 16);
+    public final Font cardTitle = new Font("SansSerif", Font.BOLD, 16);
+    public final Font cardText = new Font("SansSerif", Font.PLAIN, 14);
+    public final Font small = new Font("SansSerif", Font.PLAIN, 12);
+    public final Font total = new Font("Segoe UI", Font.BOLD, 18);
+
+    // -------------------- colors --------------------
+    public final Color primary;
+    public final Color primaryHover;
+    public final Color onPrimary;
+    public final Color text;
+    public final Color background;
+    public final Color backgroundAlt;
+    public final Color backgroundAccent;
+    public final Color navbar;
+    public final Color heroOverlay = new Color(0, 0, 0, 120);
+    public final Color danger = new Color(200, 60, 60);
+
+    // -------------------- borders --------------------
+    public final Border card;
+    public final Border rangeCard;
+    public final Border cardHover;
+    public final Border button = new EmptyBorder(8, 18, 8, 18);
+    public final Border buttonLargePadding = new EmptyBorder(10, 20, 10, 20);
+    public final Border rowButton = new EmptyBorder(4, 10, 4, 10);
+    /** A row of the cart list: framed, with a gap below. */
+    public final Border cartRow;
+    /** Grid cells (ProductGrid): the padding shrinks by the extra pixel of the hover line. */
+    public final Border gridCell;
+    public final Border gridCellHover;
+
+    private Theme(String name, Color primary, Color primaryHover, Color onPrimary, Color text,
+                  Color background, Color backgroundAlt, Color backgroundAccent, Color navbar,
+                  Color cardLine, Color rangeCardLine) {
+        this.name = name;
+        this.primary = primary;
+        this.primaryHover = primaryHover;
+        this.onPrimary = onPrimary;
+        this.text = text;
+        this.background = background;
+        this.backgroundAlt = backgroundAlt;
+        this.backgroundAccent = backgroundAccent;
+        this.navbar = navbar;
+        this.card = new LineBorder(cardLine, 1);
+        this.rangeCard = new LineBorder(rangeCardLine, 1);
+        this.cardHover = new LineBorder(primary, 2);
+        this.gridCell = new CompoundBorder(new EmptyBorder(8, 8, 8, 8), card);
+        this.gridCellHover = new CompoundBorder(new EmptyBorder(7, 7, 7, 7), cardHover);
+        this.cartRow = new CompoundBorder(new EmptyBorder(0, 0, 6, 0), rangeCard);
+    }
+
+    // -------------------- styling --------------------
+
+    /** Gives c its role and styles it with the current theme (EDT). */
+    public static <T extends JComponent> T style(T c, Role role) {
+        c.putClientProperty(ROLE_KEY, role);
+        if (role.hoverable) {
+            c.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+            c.addMouseListener(HoverController.shared());
+        }
+        current.apply(c, role, false);
+        return c;
+    }
+
+    static Role roleOf(JComponent c) {
+        return (Role) c.getClientProperty(ROLE_KEY);
+    }
+
+    /** Switches theme and restyles every open window (EDT). */
+    public static void setCurrent(Theme theme) {
+        if (theme == current) return;
+        current = theme;
+        UIManager.put("Label.font", theme.body);
+        UIManager.put("Button.font", theme.body);
+        UIManager.put("TextField.font", theme.body);
+        for (Window w : Window.getWindows()) {
+            restyle(w);
+            w.repaint();
+        }
+    }
+
+    private static void restyle(Component c) {
+        if (c instanceof JComponent) {
+            Role role = roleOf((JComponent) c);
+            if (role != null) current.apply((JComponent) c, role, false);
+        }
+        if (c instanceof Container) {
+            for (Component child : ((Container) c).getComponents()) restyle(child);
+        }
+    }
+
+    /** Sets what the role takes from this theme; only existing instances, nothing is created. */
+    void apply(JComponent c, Role role, boolean hover) {
+        switch (role) {
+            case NAVBAR:
+                c.setBackground(navbar);
+                break;
+            case BRAND:
+                c.setFont(bodyBold);
+                c.setForeground(primary);
+                break;
+            case NAV_LINK:
+                c.setFont(body);
+                c.setForeground(hover ? primaryHover : primary);
+                break;
+            case BUTTON:
+            case BUTTON_LARGE:
+            case BUTTON_WIDE:
+                c.setBackground(hover ? primaryHover : primary);
+                c.setForeground(onPrimary);
+                c.setFont(role == Role.BUTTON_LARGE ? buttonLarge : role == Role.BUTTON_WIDE ? buttonWide : body);
+                c.setBorder(role == Role.BUTTON ? button : buttonLargePadding);
+                break;
+            case SECTION:
+                c.setBackground(background);
+                break;
+            case SECTION_ALT:
+                c.setBackground(backgroundAlt);
+                break;
+            case SECTION_ACCENT:
+                c.setBackground(backgroundAccent);
+                break;
+            case FOOTER:
+                c.setBackground(primary);
+                break;
+            case SECTION_TITLE:
+                c.setFont(sectionTitle);
+                c.setForeground(text);
+                break;
+            case MAILING_TITLE:
+                c.setFont(mailingTitle);
+                c.setForeground(text);
+                break;
+            case LEAD:
+                c.setFont(lead);
+                c.setForeground(text);
+                break;
+            case HERO_OVERLAY:
+                c.setBackground(heroOverlay);
+                break;
+            case HERO_TITLE:
+                c.setFont(heroTitle);
+                c.setForeground(Color.WHITE);
+                break;
+            case HERO_SUBTITLE:
+                c.setFont(heroSubtitle);
+                c.setForeground(Color.WHITE);
+                break;
+            case FOOTER_TITLE:
+                c.setFont(footerTitle);
+                c.setForeground(onPrimary);
+                break;
+            case CARD:
+                c.setBackground(background);
+                c.setBorder(hover ? cardHover : card);
+                break;
+            case RANGE_CARD:
+                c.setBackground(background);
+                c.setBorder(hover ? cardHover : rangeCard);
+                break;
+            case CARD_TITLE:
+                c.setFont(cardTitle);
+                c.setForeground(text);
+                break;
+            case CARD_TEXT:
+                c.setFont(cardText);
+                c.setForeground(text);
+                break;
+            case PRICE:
+                c.setFont(cardText);
+                c.setForeground(primary);
+                break;
+            case STATUS:
+                c.setFont(small);
+                break;
+            case DIALOG:
+                c.setBackground(background);
+                break;
+            case DIALOG_TITLE:
+                c.setFont(bodyBold);
+                c.setForeground(text);
+                break;
+            case FORM_LABEL:
+                c.setFont(body);
+                c.setForeground(text);
+                break;
+            case TOTAL:
+                c.setFont(total);
+                c.setForeground(primary);
+                break;
+            case CART_ROW:
+                c.setBackground(backgroundAlt);
+                c.setBorder(cartRow);
+                break;
+            case CART_ROW_TEXT:
+                c.setFont(body);
+                c.setForeground(text);
+                break;
+            case CART_ROW_DETAIL:
+                c.setFont(small);
+                c.setForeground(text);
+                break;
+            case ROW_BUTTON:
+            case DANGER_BUTTON:
+                c.setBackground(role == Role.DANGER_BUTTON ? danger : primary);
+                c.setForeground(onPrimary);
+                c.setFont(body);
+                c.setBorder(rowButton);
+                break;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
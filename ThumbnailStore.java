@@ -0,0 +1,139 @@
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * On-disk store of scaled images, so later launches skip the JPEG decode.
+ * One file per (source, width, height) holding raw pixels behind a small
+ * header with the source's last-modified time and length; a thumbnail whose
+ * source changed is ignored and regenerated. Files are read back with a
+ * memory-mapped buffer.
+ *
+ * Layout (big endian): magic, version, flags, width, height, mtime(long), length(long), pixels (int per pixel)
+ */
+public class ThumbnailStore {
+
+    private static final int MAGIC = 0x46544842; // "FTHB"
+    private static final int VERSION = 1;
+    private static final int HEADER = 5 * 4 + 2 * 8;
+    private static final int FLAG_ALPHA = 1;
+
+    private static final ThumbnailStore SHARED =
+            new ThumbnailStore(Paths.get(System.getProperty("furniture.thumbs.dir", ".thumbs")));
+
+    public static ThumbnailStore shared() {
+        return SHARED;
+    }
+
+    private final Path dir;
+    private volatile boolean enabled = !Boolean.getBoolean("furniture.thumbs.disabled");
+
+    public ThumbnailStore(Path dir) {
+        this.dir = dir;
+    }
+
+    /** Returns the stored thumbnail, or null if missing or out of date. */
+    public BufferedImage get(String fileName, java.net.URL source, int w, int h) {
+        if (!enabled) return null;
+        Path p = pathFor(fileName, w, h);
+        if (!Files.isRegularFile(p)) return null;
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER) return null;
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) return null;
+            int flags = buf.getInt();
+            int tw = buf.getInt();
+            int th = buf.getInt();
+            long mtime = buf.getLong();
+            long length = buf.getLong();
+            if (tw != w || th != h || size != HEADER + 4L * w * h) return null;
+
+            long[] fp = fingerprint(source);
+            if (fp == null || fp[0] != mtime || fp[1] != length) return null; // source changed
+
+            int[] pixels = new int[w * h];
+            IntBuffer ib = buf.asIntBuffer();
+            ib.get(pixels);
+            boolean alpha = (flags & FLAG_ALPHA) != 0;
+            BufferedImage img = ImageScaler.createCompatible(w, h, alpha);
+            if (img.getType() == BufferedImage.TYPE_INT_RGB || img.getType() == BufferedImage.TYPE_INT_ARGB) {
+                img.getRaster().setDataElements(0, 0, w, h, pixels);
+            } else {
+                img.setRGB(0, 0, w, h, pixels, 0, w);
+            }
+            return img;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Saves a thumbnail; failures are ignored (the store is only a cache). */
+    public void put(String fileName, java.net.URL source, BufferedImage img) {
+        if (!enabled) return;
+        long[] fp = fingerprint(source);
+        if (fp == null) return;
+
+        int w = img.getWidth();
+        int h = img.getHeight();
+        boolean alpha = img.getColorModel().hasAlpha();
+        int[] pixels = img.getRGB(0, 0, w, h, null, 0, w);
+
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + 4 * pixels.length).order(ByteOrder.BIG_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(alpha ? FLAG_ALPHA : 0).putInt(w).putInt(h);
+        buf.putLong(fp[0]).putLong(fp[1]);
+        buf.asIntBuffer().put(pixels);
+        buf.rewind();
+
+        Path target = pathFor(fileName, w, h);
+        try {
+            Files.createDirectories(dir);
+            // write next to the target, then swap it in so readers never see half a file
+            Path tmp = Files.createTempFile(dir, "thumb", ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            // read-only disk etc.: keep running without the store
+        }
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    Path pathFor(String fileName, int w, int h) {
+        String safe = fileName.replaceAll("[^A-Za-z0-9._-]", "_");
+        return dir.resolve(safe + "_" + w + "x" + h + ".thumb");
+    }
+
+    // {last modified, length} of the source, or null if it cannot be read
+    static long[] fingerprint(java.net.URL source) {
+        try {
+            if ("file".equals(source.getProtocol())) {
+                Path p = Paths.get(source.toURI());
+                return new long[]{Files.getLastModifiedTime(p).toMillis(), Files.size(p)};
+            }
+            URLConnection c = source.openConnection();
+            long[] fp = {c.getLastModified(), c.getContentLengthLong()};
+            c.getInputStream().close();
+            return fp[1] < 0 ? null : fp;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import furniture.bench.Targets;
+
+/**
+ * Targets for the JMH benchmarks, in the default package so it can see the
+ * shop classes. Keep it a thin pass-through: anything done here is measured.
+ */
+public class BenchTargets implements Targets {
+
+    private final CheckoutEngine engine = new CheckoutEngine(null, null);
+
+    @Override
+    public BufferedImage loadScaled(String file, int w, int h) throws IOException {
+        return ImageScaler.load(image(file), w, h);
+    }
+
+    @Override
+    public java.net.URL image(String file) {
+        java.net.URL url = ImageScaler.class.getResource("/images/" + file);
+        if (url == null) throw new IllegalArgumentException("no image " + file);
+        return url;
+    }
+
+    @Override
+    public CartUnderTest cart(int lines) {
+        Cart cart = new Cart();
+        for (int i = 0; i < lines; i++) {
+            cart.add(new Product(i + 1, "Product " + i, "Living Room", 100_000 + 50L * i, "armchair.jpg"), 1 + i % 3);
+        }
+        return new CartUnderTest() {
+            @Override
+            public long total() {
+                return cart.getTotal();
+            }
+
+            @Override
+            public long recompute() {
+                long t = 0;
+                for (Cart.Line l : cart.lines()) t += l.subtotal();
+                return t;
+            }
+
+            @Override
+            public List<String> displayPrices() {
+                List<String> prices = new ArrayList<>(cart.size());
+                for (Cart.Line l : cart.lines()) prices.add(l.product.displayPrice());
+                return prices;
+            }
+        };
+    }
+
+    @Override
+    public OrderWriter journal(Path file, String durability) throws IOException {
+        OrderJournal journal = new OrderJournal(file, OrderJournal.Durability.valueOf(durability));
+        Order order = sampleOrder();
+        return new OrderWriter() {
+            @Override
+            public void write() {
+                journal.submit(order).join();
+            }
+
+            @Override
+            public void close() {
+                journal.close();
+            }
+        };
+    }
+
+    @Override
+    public String sampleOrderText() {
+        return sampleOrder().toText();
+    }
+
+    // same order as OrderJournalBenchmark
+    private static Order sampleOrder() {
+        List<Order.Item> items = new ArrayList<>();
+        items.add(new Order.Item(1, "Bouclé Wooden Armchair", 1_500_000, 1));
+        items.add(new Order.Item(2, "Woven Table Lamp", 400_000, 2));
+        items.add(new Order.Item(4, "LED Curve Mirror", 900_000, 1));
+        return new Order(LocalDateTime.of(2025, 1, 15, 10, 30), items);
+    }
+
+    @Override
+    public boolean isValidEmail(String s) {
+        return EmailAddress.isValid(s);
+    }
+
+    @Override
+    public boolean checkoutValid(String name, String phone, String email, String address) {
+        try {
+            engine.validate(new CheckoutEngine.Customer(name, phone, email, address));
+            return true;
+        } catch (CheckoutEngine.CheckoutException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost per operation of Cart for growing cart sizes, next to the old
+ * List + re-parse-every-price total that openCartWindow used to compute.
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar CartBenchmark
+ */
+public class CartBenchmark {
+
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int OPS = 200_000;
+
+    static volatile long sink;
+
+    public static void main(String[] args) {
+        for (int round = 0; round < 2; round++) { // first round is warm-up
+            boolean print = round == 1;
+            if (print) {
+                System.out.printf("%8s %14s %14s %16s %16s %14s %16s%n", "lines", "add new ns", "add again ns",
+                        "rm first+add ns", "rm random+add ns", "total ns", "legacy total ns");
+            }
+            for (int size : SIZES) run(size, print);
+        }
+    }
+
+    private static void run(int size, boolean print) {
+        Product[] products = new Product[size + OPS];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new Product(i, "Product " + i, "Chairs", 100_000L + i, "lamp.jpg");
+        }
+
+        Cart cart = new Cart();
+        for (int i = 0; i < size; i++) cart.add(products[i]);
+
+        // new lines on a cart that already has `size` lines
+        Cart grow = new Cart();
+        for (int i = 0; i < size; i++) grow.add(products[i]);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < OPS; i++) grow.add(products[size + i]);
+        long addNew = (System.nanoTime() - t0) / OPS;
+
+        // quantity bumps on existing lines
+        t0 = System.nanoTime();
+        for (int i = 0; i < OPS; i++) cart.add(products[i % size]);
+        long addAgain = (System.nanoTime() - t0) / OPS;
+
+        // remove the first line and put it back (the worst case of a shifting list)
+        t0 = System.nanoTime();
+        for (int i = 0; i < OPS; i++) {
+            Product p = cart.line(0).product;
+            cart.remove(p.id);
+            cart.add(p);
+        }
+        long removeFirst = (System.nanoTime() - t0) / OPS;
+
+        // remove a random line and put it back
+        java.util.Random random = new java.util.Random(42);
+        int[] picks = new int[OPS];
+        for (int i = 0; i < OPS; i++) picks[i] = random.nextInt(size);
+        t0 = System.nanoTime();
+        for (int i = 0; i < OPS; i++) {
+            Product p = products[picks[i]];
+            cart.remove(p.id);
+            cart.add(p);
+        }
+        long removeRandom = (System.nanoTime() - t0) / OPS;
+
+        t0 = System.nanoTime();
+        long s = 0;
+        for (int i = 0; i < OPS; i++) s += cart.getTotal();
+        long total = (System.nanoTime() - t0) / OPS;
+        sink = s;
+
+        // what openCartWindow did: one List entry per item, re-parse every price string
+        List<String> legacy = new ArrayList<>();
+        for (int i = 0; i < size; i++) legacy.add(products[i].displayPrice());
+        int rounds = Math.max(5, 2_000_000 / size);
+        t0 = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            long t = 0;
+            for (String price : legacy) t += Integer.parseInt(price.replaceAll("[^0-9]", ""));
+            sink = t;
+        }
+        long legacyTotal = (System.nanoTime() - t0) / rounds;
+
+        if (print) {
+            System.out.printf("%8d %14d %14d %16d %16d %14d %16d%n",
+                    size, addNew, addAgain, removeFirst, removeRandom, total, legacyTotal);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import javax.swing.ImageIcon;
+
+/**
+ * Compares the old loadImage path (ImageIcon + getScaledInstance(SCALE_SMOOTH))
+ * with ImageScaler (subsampled decode + stepwise downscale) on the files in images/.
+ *
+ * Run from the project root:  java -Djava.awt.headless=true -cp benchmarks/target/benchmarks.jar ImageScalerBenchmark [iterations]
+ */
+public class ImageScalerBenchmark {
+
+    // sizes used by the card builders and the hero
+    private static final int[][] SIZES = {{350, 200}, {200, 150}, {220, 180}, {180, 150}, {1200, 500}};
+
+    interface Loader {
+        BufferedImage load(java.net.URL url, int w, int h) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+        File[] files = new File("images").listFiles((d, n) -> n.toLowerCase().endsWith(".jpg"));
+        if (files == null || files.length == 0) {
+            System.out.println("No images found in ./images");
+            return;
+        }
+        Arrays.sort(files);
+
+        System.out.printf("%-16s %-9s %12s %12s %8s %12s %12s%n",
+                "file", "size", "legacy ms", "scaler ms", "speedup", "legacy peak", "scaler peak");
+
+        double legacyTotal = 0, scalerTotal = 0;
+        for (File f : files) {
+            java.net.URL url = f.toURI().toURL();
+            for (int[] s : SIZES) {
+                Result legacy = run(ImageScalerBenchmark::legacy, url, s[0], s[1], iterations);
+                Result scaler = run(ImageScaler::load, url, s[0], s[1], iterations);
+                legacyTotal += legacy.avgMillis;
+                scalerTotal += scaler.avgMillis;
+                System.out.printf("%-16s %-9s %12.2f %12.2f %7.1fx %10dKB %10dKB%n",
+                        f.getName(), s[0] + "x" + s[1],
+                        legacy.avgMillis, scaler.avgMillis, legacy.avgMillis / scaler.avgMillis,
+                        legacy.peakBytes / 1024, scaler.peakBytes / 1024);
+            }
+        }
+        System.out.printf("TOTAL legacy=%.1f ms scaler=%.1f ms (%.1fx)%n",
+                legacyTotal, scalerTotal, legacyTotal / scalerTotal);
+    }
+
+    // what loadImage used to do; drawn once so the lazy scaled image is actually produced
+    static BufferedImage legacy(java.net.URL url, int w, int h) {
+        ImageIcon icon = new ImageIcon(url);
+        Image scaled = icon.getImage().getScaledInstance(w, h, Image.SCALE_SMOOTH);
+        ImageIcon out = new ImageIcon(scaled); // waits for the image like the UI did
+        BufferedImage bi = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = bi.createGraphics();
+        g2.drawImage(out.getImage(), 0, 0, null);
+        g2.dispose();
+        icon.getImage().flush();
+        return bi;
+    }
+
+    static class Result {
+        double avgMillis;
+        long peakBytes;
+    }
+
+    static Result run(Loader loader, java.net.URL url, int w, int h, int iterations) throws Exception {
+        // warm-up
+        for (int i = 0; i < 2; i++) loader.load(url, w, h);
+
+        System.gc();
+        long base = heapUsed();
+        resetPeaks();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            loader.load(url, w, h);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Result r = new Result();
+        r.avgMillis = elapsed / 1e6 / iterations;
+        r.peakBytes = Math.max(0, heapPeak() - base);
+        return r;
+    }
+
+    private static void resetPeaks() {
+        for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (p.getType() == MemoryType.HEAP) p.resetPeakUsage();
+        }
+    }
+
+    private static long heapPeak() {
+        long sum = 0;
+        for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (p.getType() == MemoryType.HEAP) sum += p.getPeakUsage().getUsed();
+        }
+        return sum;
+    }
+
+    private static long heapUsed() {
+        long sum = 0;
+        for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (p.getType() == MemoryType.HEAP) sum += p.getUsage().getUsed();
+        }
+        return sum;
+    }
+}
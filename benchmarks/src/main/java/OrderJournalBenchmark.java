@@ -0,0 +1,62 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Orders/sec of OrderJournal for each durability mode, with several threads
+ * submitting at once (like several checkouts). Writes to a temp file.
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar OrderJournalBenchmark [orders] [threads]
+ */
+public class OrderJournalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        List<Order.Item> items = new ArrayList<>();
+        items.add(new Order.Item(1, "Bouclé Wooden Armchair", 1_500_000, 1));
+        items.add(new Order.Item(2, "Woven Table Lamp", 400_000, 2));
+        items.add(new Order.Item(4, "LED Curve Mirror", 900_000, 1));
+        Order order = new Order(LocalDateTime.now(), items);
+
+        System.out.printf("%-10s %8s %12s %10s %8s%n", "mode", "orders", "orders/sec", "batches", "fsyncs");
+        for (OrderJournal.Durability mode : OrderJournal.Durability.values()) {
+            // one fsync per order is slow: fewer orders so the run stays short
+            int n = mode == OrderJournal.Durability.PER_ORDER ? Math.min(orders, 2_000) : orders;
+            Path file = Files.createTempFile("orders-bench", ".txt");
+            try (OrderJournal journal = new OrderJournal(file, mode)) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Thread> workers = new ArrayList<>();
+                List<CompletableFuture<Order>> futures = java.util.Collections.synchronizedList(new ArrayList<>());
+                for (int t = 0; t < threads; t++) {
+                    int share = n / threads + (t < n % threads ? 1 : 0);
+                    Thread w = new Thread(() -> {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        for (int i = 0; i < share; i++) futures.add(journal.submit(order));
+                    });
+                    w.start();
+                    workers.add(w);
+                }
+                long t0 = System.nanoTime();
+                start.countDown();
+                for (Thread w : workers) w.join();
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+                double secs = (System.nanoTime() - t0) / 1e9;
+
+                System.out.printf("%-10s %8d %12.0f %10d %8d%n", mode, n, n / secs,
+                        journal.getBatchCount(), journal.getForceCount());
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
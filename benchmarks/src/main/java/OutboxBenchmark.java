@@ -0,0 +1,107 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Measures the Outbox:
+ *   1. what enqueue() costs the caller (what the contact form's Send button pays),
+ *   2. how long a burst takes to drain through the file-drop transport,
+ *   3. a transport failing its first attempts: retries, backoff and that
+ *      everything still arrives,
+ *   4. restart: messages spooled but not sent are sent by the next outbox.
+ * Works in a temporary directory that is deleted afterwards.
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar OutboxBenchmark [messages]
+ */
+public class OutboxBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Path dir = Files.createTempDirectory("outbox-bench");
+        try {
+            burst(dir.resolve("burst"), n);
+            flaky(dir.resolve("flaky"));
+            restart(dir.resolve("restart"));
+        } finally {
+            try (Stream<Path> s = Files.walk(dir)) {
+                s.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private static void burst(Path dir, int n) throws Exception {
+        Path drop = dir.resolve("drop");
+        try (Outbox box = new Outbox(dir, () -> new FileDropTransport(drop, "shop@example.com"))) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) box.enqueue(message(i));
+            long enqueueNs = System.nanoTime() - t0;
+            int peak = box.getDepth();
+            waitDrained(box, n, 120_000);
+            double drainSecs = (System.nanoTime() - t0) / 1e9;
+            System.out.printf("burst: %,d messages, enqueue %.0f ns/op on the caller, depth right after %,d%n",
+                    n, (double) enqueueNs / n, peak);
+            System.out.printf("       drained in %.2f s (%,.0f msg/s), %d files%n", drainSecs, n / drainSecs, count(drop));
+            System.out.println("       " + box.statsLine());
+        }
+    }
+
+    // transport failing its first 3 calls: backoff is 500 ms, 1 s, 2 s (+ jitter)
+    private static void flaky(Path dir) throws Exception {
+        Path drop = dir.resolve("drop");
+        AtomicInteger calls = new AtomicInteger();
+        try (Outbox box = new Outbox(dir, () -> {
+            FileDropTransport files = new FileDropTransport(drop, "shop@example.com");
+            return batch -> {
+                if (calls.incrementAndGet() <= 3) throw new IOException("relay unavailable");
+                files.send(batch);
+            };
+        })) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < 10; i++) box.enqueue(message(i));
+            waitDrained(box, 10, 30_000);
+            System.out.printf("flaky: 10 messages after %d failed attempts, delivered in %.1f s, %d files%n",
+                    box.getFailedAttempts(), (System.nanoTime() - t0) / 1e9, count(drop));
+            System.out.println("       " + box.statsLine());
+        }
+    }
+
+    // first outbox can never send; a second one on the same spool delivers everything
+    private static void restart(Path dir) throws Exception {
+        Path drop = dir.resolve("drop");
+        try (Outbox down = new Outbox(dir, () -> batch -> { throw new IOException("offline"); })) {
+            for (int i = 0; i < 100; i++) down.enqueue(message(i));
+            Thread.sleep(300);
+        }
+        try (Outbox box = new Outbox(dir, () -> new FileDropTransport(drop, "shop@example.com"))) {
+            waitDrained(box, 100, 30_000);
+            System.out.printf("restart: %d of 100 spooled messages delivered after reopening, %d files%n",
+                    box.getDeliveredCount(), count(drop));
+            if (box.getDeliveredCount() != 100 || count(drop) != 100) {
+                System.out.println("FAILED");
+                System.exit(1);
+            }
+        }
+    }
+
+    private static void waitDrained(Outbox box, long expected, long timeoutMs) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeoutMs;
+        while (box.getDeliveredCount() < expected) {
+            if (System.currentTimeMillis() > end) throw new IllegalStateException("not drained: " + box.statsLine());
+            Thread.sleep(5);
+        }
+    }
+
+    private static ContactMessage message(int i) {
+        return new ContactMessage("Client " + i, "client" + i + "@example.com", "Question " + i,
+                "Hello,\nis item " + i + " still available?\tThanks");
+    }
+
+    private static long count(Path drop) throws IOException {
+        try (Stream<Path> s = Files.list(drop)) {
+            return s.filter(p -> p.toString().endsWith(".eml")).count();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prefix-query latency of SearchIndex on a catalog file.
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar SearchIndexBenchmark [catalog file]
+ * (generate a big one first: java -cp . CatalogGenerator 300000 big-catalog.csv)
+ */
+public class SearchIndexBenchmark {
+
+    private static final String[] QUERIES = {
+            "a", "b", "o", "oak", "wal", "bouc", "velvet", "lamp", "ch", "tab",
+            "oak tab", "nordic so", "marble", "rattan bench", "woven l", "12", "zzz",
+    };
+
+    public static void main(String[] args) throws Exception {
+        String file = args.length > 0 ? args[0] : "catalog.csv";
+        Catalog catalog = Catalog.load(Paths.get(file));
+
+        long t0 = System.nanoTime();
+        SearchIndex index = SearchIndex.build(catalog);
+        System.out.printf("Indexed %d products in %.1f ms%n", index.size(), (System.nanoTime() - t0) / 1e6);
+
+        // warm-up
+        for (int i = 0; i < 2000; i++) index.search(QUERIES[i % QUERIES.length], 8);
+
+        int rounds = 2000;
+        System.out.printf("%-14s %8s %10s %10s%n", "query", "results", "avg us", "p99 us");
+        for (String q : QUERIES) {
+            long[] times = new long[rounds];
+            List<Product> res = null;
+            for (int i = 0; i < rounds; i++) {
+                long s = System.nanoTime();
+                res = index.search(q, 8);
+                times[i] = System.nanoTime() - s;
+            }
+            Arrays.sort(times);
+            long sum = 0;
+            for (long t : times) sum += t;
+            System.out.printf("%-14s %8d %10.1f %10.1f%n", q, res.size(), sum / 1e3 / rounds, times[(int) (rounds * 0.99)] / 1e3);
+        }
+    }
+}
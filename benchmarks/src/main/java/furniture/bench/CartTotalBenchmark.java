@@ -0,0 +1,59 @@
+package furniture.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The cart total shown by the cart window: Cart's running total, a walk
+ * over the lines, and the original openCartWindow loop that stripped every
+ * displayed price down to its digits with a regex and parsed it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CartTotalBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int lines;
+
+    private Targets.CartUnderTest cart;
+    private List<String> prices;
+
+    @Setup
+    public void setup() {
+        cart = Targets.get().cart(lines);
+        prices = cart.displayPrices();
+    }
+
+    @Benchmark
+    public long runningTotal() {
+        return cart.total();
+    }
+
+    @Benchmark
+    public long sumOfLines() {
+        return cart.recompute();
+    }
+
+    @Benchmark
+    public long legacyParseDisplayedPrices() {
+        long total = 0;
+        for (String price : prices) total += Long.parseLong(price.replaceAll("[^0-9]", ""));
+        return total;
+    }
+}
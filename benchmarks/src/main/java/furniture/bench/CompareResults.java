@@ -0,0 +1,113 @@
+package furniture.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written with -rf csv (say, before and after
+ * a change) and prints one line per benchmark + parameters: both scores, the
+ * change, and whether it is larger than the two error margins together.
+ * "better"/"worse" follow the mode (higher is better for thrpt, lower for
+ * avgt/sample/ss). Exits with status 2 if any result got worse beyond its
+ * error, so a script can fail on regressions.
+ *
+ * Usage: java -cp benchmarks.jar furniture.bench.CompareResults old.csv new.csv
+ */
+public class CompareResults {
+
+    static class Row {
+        String key, mode, unit;
+        double score, error;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareResults old.csv new.csv");
+            System.exit(1);
+        }
+        Map<String, Row> before = read(args[0]);
+        Map<String, Row> after = read(args[1]);
+
+        boolean regressed = false;
+        System.out.printf("%-70s %14s %14s %9s  %s%n", "benchmark", "old", "new", "change", "");
+        for (Row n : after.values()) {
+            Row o = before.get(n.key);
+            if (o == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", n.key, "-", n.score, "", n.unit + " (new)");
+                continue;
+            }
+            double change = (n.score - o.score) / o.score * 100;
+            boolean significant = Math.abs(n.score - o.score) > nan0(o.error) + nan0(n.error);
+            boolean higherIsBetter = n.mode.equals("thrpt");
+            String verdict = !significant ? "within error" : (n.score > o.score) == higherIsBetter ? "better" : "WORSE";
+            if (verdict.equals("WORSE")) regressed = true;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s %s%n", n.key, o.score, n.score, change, n.unit, verdict);
+        }
+        for (Row o : before.values()) {
+            if (!after.containsKey(o.key)) System.out.printf("%-70s %14.3f %14s %9s  %s%n", o.key, o.score, "-", "", o.unit + " (gone)");
+        }
+        if (regressed) System.exit(2);
+    }
+
+    private static double nan0(double d) {
+        return Double.isNaN(d) ? 0 : d;
+    }
+
+    // JMH csv: "Benchmark","Mode","Threads","Samples","Score","Score Error (99.9%)","Unit","Param: x",...
+    static Map<String, Row> read(String file) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+        Map<String, Row> rows = new LinkedHashMap<>();
+        if (lines.isEmpty()) return rows;
+        List<String> header = split(lines.get(0));
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isEmpty()) continue;
+            List<String> f = split(line);
+            Row r = new Row();
+            StringBuilder key = new StringBuilder(f.get(0).replace("furniture.bench.", ""));
+            char sep = ' ';
+            for (int i = 7; i < f.size() && i < header.size(); i++) {
+                if (f.get(i).isEmpty()) continue; // parameter of another benchmark
+                key.append(sep).append(header.get(i).replace("Param: ", "")).append('=').append(f.get(i));
+                sep = ',';
+            }
+            key.append(" t=").append(f.get(2));
+            r.key = key.toString();
+            r.mode = f.get(1);
+            r.score = Double.parseDouble(f.get(4));
+            r.error = f.get(5).isEmpty() || f.get(5).equals("NaN") ? Double.NaN : Double.parseDouble(f.get(5));
+            r.unit = f.get(6);
+            rows.put(r.key, r);
+        }
+        return rows;
+    }
+
+    private static List<String> split(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        out.add(cur.toString());
+        return out;
+    }
+}
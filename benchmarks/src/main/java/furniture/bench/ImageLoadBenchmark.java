@@ -0,0 +1,73 @@
+package furniture.bench;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import javax.swing.ImageIcon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decode + scale of a product image per target size (no cache): what the
+ * image cache pays on a miss, next to what loadImage used to do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ImageLoadBenchmark {
+
+    @Param({"armchair.jpg", "living.jpg"})
+    String file;
+
+    // product card, cart thumbnail, section banner
+    @Param({"220x180", "180x150", "1200x500"})
+    String size;
+
+    private Targets targets;
+    private URL url;
+    private int w, h;
+
+    @Setup
+    public void setup() {
+        targets = Targets.get();
+        url = targets.image(file);
+        String[] wh = size.split("x");
+        w = Integer.parseInt(wh[0]);
+        h = Integer.parseInt(wh[1]);
+    }
+
+    @Benchmark
+    public BufferedImage imageScaler() throws IOException {
+        return targets.loadScaled(file, w, h);
+    }
+
+    // the original loadImage: ImageIcon + getScaledInstance(SCALE_SMOOTH), drawn once
+    @Benchmark
+    public BufferedImage legacyScaledInstance() {
+        ImageIcon icon = new ImageIcon(url);
+        Image scaled = icon.getImage().getScaledInstance(w, h, Image.SCALE_SMOOTH);
+        ImageIcon out = new ImageIcon(scaled);
+        BufferedImage bi = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = bi.createGraphics();
+        g2.drawImage(out.getImage(), 0, 0, null);
+        g2.dispose();
+        icon.getImage().flush();
+        return bi;
+    }
+}
@@ -0,0 +1,92 @@
+package furniture.bench;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Orders appended per second: OrderJournal in each durability mode (the
+ * call returns once the journal reports the order written), and the original
+ * saveOrderToFile, which opened orders.txt, appended and closed it per order.
+ * Each iteration writes to a fresh temp file. Run with -t N to see the
+ * journal batch concurrent checkouts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class OrderWriteBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Journal {
+        @Param({"PER_ORDER", "BATCHED", "ASYNC"})
+        String durability;
+
+        Path file;
+        Targets.OrderWriter writer;
+
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            file = Files.createTempFile("bench-orders", ".txt");
+            writer = Targets.get().journal(file, durability);
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws IOException {
+            writer.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Legacy {
+        Path file;
+        String[] lines;
+
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            file = Files.createTempFile("bench-orders", ".txt");
+            lines = Targets.get().sampleOrderText().split("\n");
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public void journal(Journal j) {
+        j.writer.write();
+    }
+
+    @Benchmark
+    public void legacySaveOrderToFile(Legacy l) throws IOException {
+        try (FileWriter fw = new FileWriter(l.file.toFile(), true)) {
+            fw.write("----- NEW ORDER -----\n");
+            fw.write("Date: " + LocalDateTime.now() + "\n");
+            for (int i = 2; i < l.lines.length - 2; i++) fw.write(l.lines[i] + "\n"); // the item lines
+            fw.write(l.lines[l.lines.length - 2] + "\n");                              // Total:
+            fw.write("---------------------\n\n");
+            fw.flush();
+        }
+    }
+}
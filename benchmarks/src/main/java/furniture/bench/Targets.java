@@ -0,0 +1,64 @@
+package furniture.bench;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The shop code the benchmarks call. The shop lives in the default package,
+ * which a named package cannot import (and JMH refuses benchmarks in the
+ * default package), so BenchTargets implements this in the default package
+ * and the benchmarks get it through {@link #get()}. Calls go through one
+ * interface with a single implementation, which the JIT inlines.
+ */
+public interface Targets {
+
+    /** ImageScaler.load on images/&lt;file&gt; from the furniture jar. */
+    BufferedImage loadScaled(String file, int w, int h) throws IOException;
+
+    /** images/&lt;file&gt; as a classpath URL, for the legacy baseline. */
+    java.net.URL image(String file);
+
+    /** A Cart holding the given number of distinct products. */
+    CartUnderTest cart(int lines);
+
+    interface CartUnderTest {
+        /** Cart.getTotal(): the running total. */
+        long total();
+
+        /** Sum of the line subtotals, walking the cart. */
+        long recompute();
+
+        /** The lines' prices as displayed ("15000 DA"), what the old cart window re-parsed. */
+        List<String> displayPrices();
+    }
+
+    /** An OrderJournal on file with the given Durability name. */
+    OrderWriter journal(Path file, String durability) throws IOException;
+
+    interface OrderWriter extends AutoCloseable {
+        /** Submits the sample order and waits until the journal reports it written. */
+        void write();
+
+        @Override
+        void close();
+    }
+
+    /** The sample order as the journal writes it (Order.toText()). */
+    String sampleOrderText();
+
+    /** EmailAddress.isValid(s). */
+    boolean isValidEmail(String s);
+
+    /** CheckoutEngine.validate on the form fields; false where it would refuse. */
+    boolean checkoutValid(String name, String phone, String email, String address);
+
+    static Targets get() {
+        try {
+            return (Targets) Class.forName("BenchTargets").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("BenchTargets missing from the classpath", e);
+        }
+    }
+}
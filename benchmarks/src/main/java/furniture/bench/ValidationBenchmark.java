@@ -0,0 +1,86 @@
+package furniture.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Form validation per field value: the regexes the mailing-list, contact and
+ * checkout forms used (String.matches compiles the pattern on every call)
+ * next to EmailAddress and CheckoutEngine.validate that replaced them.
+ * Each invocation checks the whole input set; scores are per value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ValidationBenchmark {
+
+    private static final int N = 8;
+
+    // what people type, good and bad
+    private static final String[] EMAILS = {
+            "sarah@example.com", "first.last+promo@mail.shop.dz", "no-at-sign.example.com", "a@b",
+            "  padded@example.org ", "x@y.z", "very.long.address.with.many.parts@sub.domain.example.co.uk", "@example.com"};
+    private static final String[] PHONES = {
+            "0555123456", "0661 23 45 67", "+213555123456", "021", "0770000000", "12ab", "0555000111222", "0"};
+
+    private Targets targets;
+
+    @Setup
+    public void setup() {
+        targets = Targets.get();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void legacyEmailRegex(Blackhole bh) {
+        for (String s : EMAILS) bh.consume(s.matches("^.+@.+\\..+$"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void emailAddress(Blackhole bh) {
+        for (String s : EMAILS) bh.consume(targets.isValidEmail(s.trim()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void legacyPhoneRegex(Blackhole bh) {
+        for (String s : PHONES) bh.consume(s.matches("[0-9]+"));
+    }
+
+    // the old checkout listener's checks, in order
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void legacyCheckoutForm(Blackhole bh) {
+        for (int i = 0; i < N; i++) {
+            String name = "Client", phone = PHONES[i], email = EMAILS[i], address = "12 rue Didouche Mourad, Alger";
+            boolean ok = !(name.isEmpty() || phone.isEmpty() || email.isEmpty() || address.isEmpty())
+                    && phone.matches("[0-9]+")
+                    && email.matches("^.+@.+\\..+$");
+            bh.consume(ok);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void checkoutEngine(Blackhole bh) {
+        for (int i = 0; i < N; i++) {
+            bh.consume(targets.checkoutValid("Client", PHONES[i], EMAILS[i], "12 rue Didouche Mourad, Alger"));
+        }
+    }
+}